@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Startup benchmark: time to first result of a single-project scan, with and without the
+# startup optimizations of the fast-startup profile (AppCDS archive + Spring AOT).
+#
+#   mvn -Pfast-startup package
+#   scripts/startup-benchmark.sh [project-path] [runs]
+#
+# Each variant runs in a fresh JVM; the reported figure is the median wall time from launch
+# until the first JSON line is printed. The thin client (--client) is measured against a scan
+# daemon (--daemon) the script starts on a socket of its own and stops when done.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PROJECT=${1:-src/test/resources/sbom}
+RUNS=${2:-10}
+JAR=$(ls target/tech-detector-*.jar 2>/dev/null | grep -v -- '-plain\|\.original' | head -1 || true)
+JSA=target/tech-detector.jsa
+
+if [[ -z "$JAR" || ! -f "$JSA" ]]; then
+  echo "Build first: mvn -Pfast-startup package" >&2
+  exit 1
+fi
+
+# Milliseconds from launch until the first line starting with '{'
+first_result_ms() {
+  local start end line
+  start=$(date +%s%N)
+  while IFS= read -r line; do
+    if [[ $line == \{* ]]; then
+      end=$(date +%s%N)
+      echo $(( (end - start) / 1000000 ))
+      cat >/dev/null
+      return
+    fi
+  done < <("$@" --compact "$PROJECT" 2>/dev/null)
+  echo "no result" >&2
+  return 1
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+bench() {
+  local name=$1; shift
+  local times=()
+  first_result_ms "$@" >/dev/null   # warm the page cache
+  for ((i = 0; i < RUNS; i++)); do
+    times+=("$(first_result_ms "$@")")
+  done
+  printf '%-22s median %5d ms   (%s)\n' "$name" "$(printf '%s\n' "${times[@]}" | median)" "${times[*]}"
+}
+
+echo "Time to first result for $PROJECT, $RUNS runs each"
+bench "plain" java -Xshare:auto -jar "$JAR"
+bench "appcds" java -XX:SharedArchiveFile="$JSA" -jar "$JAR"
+bench "appcds + aot" java -XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true -jar "$JAR"
+
+# A daemon of our own on an explicit socket, in a private directory as the daemon requires
+SOCKET_DIR=$(mktemp -d)
+SOCKET="$SOCKET_DIR/daemon.sock"
+java -XX:SharedArchiveFile="$JSA" -jar "$JAR" --daemon --socket="$SOCKET" >/dev/null 2>&1 &
+DAEMON=$!
+trap 'kill "$DAEMON" 2>/dev/null; rm -rf "$SOCKET_DIR"' EXIT
+for ((i = 0; i < 300; i++)); do
+  [[ -S "$SOCKET" ]] && break
+  sleep 0.1
+done
+if [[ -S "$SOCKET" ]]; then
+  bench "daemon client" java -XX:SharedArchiveFile="$JSA" -XX:TieredStopAtLevel=1 -jar "$JAR" --client --socket="$SOCKET"
+else
+  echo "Scan daemon did not start, skipping the daemon client" >&2
+fi
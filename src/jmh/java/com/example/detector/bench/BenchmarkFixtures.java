@@ -0,0 +1,131 @@
+package com.example.detector.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.detector.config.CompiledRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs shared by the benchmarks: the SBOM fixtures of the test suite, and synthetic
+ * registries, SBOMs and project trees of a given size. Benchmarks run from the project root.
+ */
+final class BenchmarkFixtures {
+
+    static final Path SBOM_FIXTURES = Path.of("src", "test", "resources", "sbom");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Logging would otherwise dominate what is measured. */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    /** Every component PURL of the three SBOM fixtures: Maven, npm and PyPI, about 1,700 in all. */
+    static List<String> fixturePurls() {
+        List<String> purls = new ArrayList<>();
+        for (String fixture : List.of("sbom.json", "sbom_UI.json", "sbom_AI.json")) {
+            try {
+                for (JsonNode component : MAPPER.readTree(SBOM_FIXTURES.resolve(fixture).toFile()).path("components")) {
+                    if (component.hasNonNull("purl")) purls.add(component.get("purl").asText());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return purls;
+    }
+
+    /**
+     * The bundled registry plus {@code extraEntries} synthetic frameworks: mostly "contains"
+     * entries, a third "exact" entries and every hundredth a "regex" entry, none of which match the
+     * fixtures, so the work grows with the registry but the findings stay the same.
+     */
+    static CompiledRegistry registryWith(int extraEntries) {
+        try (InputStream in = BenchmarkFixtures.class.getClassLoader().getResourceAsStream("registry/registry.json")) {
+            ObjectNode registry = (ObjectNode) MAPPER.readTree(in);
+            ObjectNode frameworks = (ObjectNode) registry.get("frameworks");
+            for (int i = 0; i < extraEntries; i++) {
+                ObjectNode entry = frameworks.putObject("synthetic-" + i);
+                if (i % 100 == 0) {
+                    entry.put("match", "regex");
+                    entry.putArray("sbomMatch").add("synthetic-re-" + i + "-[a-z]+");
+                } else if (i % 3 == 0) {
+                    entry.put("match", "exact");
+                    entry.putArray("sbomMatch").add("org.synthetic.group" + i);
+                } else {
+                    entry.put("match", "contains");
+                    entry.putArray("sbomMatch").add("synthetic-lib-" + i);
+                    entry.putArray("keywords").add("import synthetic" + i);
+                }
+            }
+            return CompiledRegistry.compile(registry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A BOM of {@code size} components cycling through the fixture PURLs. */
+    static Bom syntheticBom(int size) {
+        List<String> purls = fixturePurls();
+        Bom bom = new Bom();
+        List<Component> components = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String purl = purls.get(i % purls.size());
+            Component c = new Component();
+            c.setType(Component.Type.LIBRARY);
+            int at = purl.indexOf('@');
+            String coordinates = at > 0 ? purl.substring(0, at) : purl;
+            c.setName(coordinates.substring(coordinates.lastIndexOf('/') + 1) + (i >= purls.size() ? "-" + i : ""));
+            c.setVersion(at > 0 ? purl.substring(at + 1) : null);
+            c.setPurl(purl);
+            components.add(c);
+        }
+        bom.setComponents(components);
+        return bom;
+    }
+
+    /**
+     * A project tree of {@code modules} modules, each a Maven module with sources, a frontend
+     * with a package.json and its lockfile, a Dockerfile and some files no plugin is interested in.
+     */
+    static void generateProject(Path root, int modules) throws IOException {
+        String pom = Files.readString(Path.of("pom.xml"));
+        for (int m = 0; m < modules; m++) {
+            Path module = root.resolve("module-" + m);
+            Path sources = Files.createDirectories(module.resolve("src/main/java/com/example/m" + m));
+            Files.writeString(module.resolve("pom.xml"), pom);
+            Files.writeString(module.resolve("Dockerfile"), "FROM eclipse-temurin:17-jre\nCOPY target/app.jar /app.jar\n");
+            for (int f = 0; f < 20; f++) {
+                Files.writeString(sources.resolve("Class" + f + ".java"), "package com.example;\npublic class Class" + f + " {}\n");
+                Files.writeString(sources.resolve("notes" + f + ".txt"), "nothing to see\n");
+            }
+            Path web = Files.createDirectories(module.resolve("web/src"));
+            Files.writeString(module.resolve("web/package.json"),
+                "{\"dependencies\":{\"react\":\"^18.2.0\",\"express\":\"4.18.0\"},\"devDependencies\":{\"typescript\":\"5.0.0\"}}");
+            Files.writeString(module.resolve("web/package-lock.json"),
+                "{\"lockfileVersion\":3,\"packages\":{\"\":{\"name\":\"web\"},"
+                    + "\"node_modules/react\":{\"version\":\"18.2.0\"},\"node_modules/express\":{\"version\":\"4.18.0\"},"
+                    + "\"node_modules/typescript\":{\"version\":\"5.0.0\",\"dev\":true}}}");
+            for (int f = 0; f < 10; f++) {
+                Files.writeString(web.resolve("component" + f + ".ts"), "export const x = " + f + ";\n");
+            }
+            Files.writeString(module.resolve("requirements.txt"), "django==4.2\nboto3==1.28\npsycopg2==2.9\n");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.detector.bench;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.ScanProperties;
+import com.example.detector.detectors.framework.MavenPomDetector;
+import com.example.detector.detectors.framework.PackageJsonDetector;
+import com.example.detector.detectors.framework.PythonRequirementsDetector;
+import com.example.detector.detectors.framework.SpringFrameworkDetector;
+import com.example.detector.detectors.lang.JavaDetector;
+import com.example.detector.detectors.lang.PythonDetector;
+import com.example.detector.detectors.lang.TerraformDetector;
+import com.example.detector.detectors.lockfile.LockfileDetector;
+import com.example.detector.detectors.runtime.DockerfileRuntimeDetector;
+import com.example.detector.detectors.runtime.JdkVersionDetector;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomService;
+import com.example.detector.engine.SbomFirstDetectorEngine;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.spi.DetectorPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * File-based detection (the walk and all plugins) over a generated project without an SBOM,
+ * with the caches off so that every iteration does the full work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FileDetectionBenchmark {
+
+    /** Modules in the generated project; each has about 60 files. */
+    @Param({"10", "100"})
+    public int modules;
+
+    private Path root;
+    private SbomFirstDetectorEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkFixtures.quietLogging();
+        root = Files.createTempDirectory("bench-project");
+        BenchmarkFixtures.generateProject(root, modules);
+
+        RegistryLoader registry = new RegistryLoader();
+        SbomProcessor sbomProcessor = new SbomProcessor(new RegistryMatcher(registry));
+        List<DetectorPlugin> plugins = List.of(new JavaDetector(), new PythonDetector(), new TerraformDetector(),
+            new DockerfileRuntimeDetector(), new JdkVersionDetector(), new MavenPomDetector(registry),
+            new SpringFrameworkDetector(registry), new PackageJsonDetector(registry), new PythonRequirementsDetector(registry),
+            new LockfileDetector(sbomProcessor));
+        ScanProperties props = new ScanProperties();
+        props.setContentCache(false);
+        engine = new SbomFirstDetectorEngine(new SbomService(), sbomProcessor, plugins, props, registry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Benchmark
+    public DetectionResult scanProject() {
+        return engine.scanProject(root);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.detector.bench;
+
+import com.example.detector.detectors.sbom.Purl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the PURLs of the SBOM fixtures, including percent-encoded npm scopes and qualifiers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurlBenchmark {
+
+    private String[] purls;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        purls = BenchmarkFixtures.fixturePurls().toArray(String[]::new);
+    }
+
+    @Benchmark
+    public Purl parse() {
+        int i = next;
+        next = i + 1 == purls.length ? 0 : i + 1;
+        return Purl.parse(purls[i]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.detector.bench;
+
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching one component against the registry, for registries of growing size. Contains and
+ * exact entries go through the compiled indexes and should barely move the cost per component;
+ * regex entries are still tried one by one, so they set the slope.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryMatcherBenchmark {
+
+    /** Synthetic entries added to the bundled registry. */
+    @Param({"0", "1000", "10000"})
+    public int extraEntries;
+
+    private RegistryMatcher matcher;
+    private String[] purls;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        matcher = new RegistryMatcher(BenchmarkFixtures.registryWith(extraEntries));
+        List<String> fixture = BenchmarkFixtures.fixturePurls();
+        purls = fixture.toArray(String[]::new);
+        names = new String[purls.length];
+        for (int i = 0; i < purls.length; i++) {
+            String p = purls[i];
+            int at = p.indexOf('@');
+            String coordinates = at > 0 ? p.substring(0, at) : p;
+            names[i] = coordinates.substring(coordinates.lastIndexOf('/') + 1);
+        }
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = i + 1 == purls.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public List<String> matchFrameworks() {
+        int i = nextIndex();
+        return matcher.matchFrameworks(names[i], purls[i]);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> matchAll() {
+        int i = nextIndex();
+        return matcher.matchAll(names[i], purls[i]);
+    }
+}
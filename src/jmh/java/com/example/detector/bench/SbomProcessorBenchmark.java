@@ -0,0 +1,92 @@
+package com.example.detector.bench;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomService;
+import com.example.detector.model.DetectionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cyclonedx.model.Bom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing a whole SBOM: the fixtures of the test suite and synthetic SBOMs scaled up from
+ * them. {@code processBom} measures classification of an already parsed BOM, {@code parseAndProcess}
+ * the object-model path end to end, and {@code stream} the streaming path end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SbomProcessorBenchmark {
+
+    /** A fixture file name, or "synthetic-N" for a generated SBOM of N components. */
+    @Param({"sbom_AI.json", "sbom_UI.json", "synthetic-10000", "synthetic-100000"})
+    public String sbom;
+
+    private final SbomService service = new SbomService();
+    private SbomProcessor processor;
+    private Path file;
+    private boolean temporary;
+    private Bom bom;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkFixtures.quietLogging();
+        processor = new SbomProcessor(new RegistryMatcher(new RegistryLoader()));
+        if (sbom.startsWith("synthetic-")) {
+            Bom generated = BenchmarkFixtures.syntheticBom(Integer.parseInt(sbom.substring("synthetic-".length())));
+            file = Files.createTempFile("bench-sbom", ".json");
+            temporary = true;
+            new ObjectMapper().writeValue(file.toFile(), generated);
+        } else {
+            file = BenchmarkFixtures.SBOM_FIXTURES.resolve(sbom);
+        }
+        bom = service.parseBom(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (temporary) Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DetectionResult processBom() {
+        DetectionResult result = new DetectionResult();
+        processor.processBom(bom, result);
+        return result;
+    }
+
+    @Benchmark
+    public DetectionResult parseAndProcess() throws Exception {
+        DetectionResult result = new DetectionResult();
+        processor.processBom(service.parseBom(file), result);
+        return result;
+    }
+
+    @Benchmark
+    public DetectionResult stream() throws IOException {
+        DetectionResult result = new DetectionResult();
+        service.streamBom(file, processor.visitor(result));
+        return result;
+    }
+}
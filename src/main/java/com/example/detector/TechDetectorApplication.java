@@ -1,5 +1,6 @@
 package com.example.detector;
 
+import com.example.detector.daemon.DaemonClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,10 +13,17 @@ import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactor
     DispatcherServletAutoConfiguration.class
 })
 public class TechDetectorApplication {
-    public static void main(String[] args) {
-        log.info("TechDetectorApplication.main() called with {} argument(s)", args.length);
-        for (int i = 0; i < args.length; i++) {
-            log.info("  args[{}] = {}", i, args[i]);
+    public static void main(String[] args) throws Exception {
+        if (DaemonClient.requested(args)) {
+            // Forward to a warm daemon if one is running, without starting Spring here
+            int exitCode = DaemonClient.forward(args, System.out, System.err);
+            if (exitCode >= 0) System.exit(exitCode);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("TechDetectorApplication.main() called with {} argument(s)", args.length);
+            for (int i = 0; i < args.length; i++) {
+                log.debug("  args[{}] = {}", i, args[i]);
+            }
         }
         SpringApplication app = new SpringApplication(TechDetectorApplication.class);
         app.setWebApplicationType(org.springframework.boot.WebApplicationType.NONE);
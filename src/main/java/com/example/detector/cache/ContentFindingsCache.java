@@ -0,0 +1,210 @@
+package com.example.detector.cache;
+
+import com.example.detector.model.Finding;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Findings keyed by the SHA-256 of the content they were derived from, shared by every project
+ * scanned in one run: a vendored {@code package.json}, a copied parent {@code pom.xml} or a
+ * generated SBOM that appears in many repositories is parsed and matched once.
+ *
+ * Findings are stored normalized: where evidence quotes the path of the file it came from, the
+ * path is replaced by a placeholder and filled in again with the path of the file being replayed.
+ *
+ * Entries are kept in memory up to a size bound and evicted least recently used first. With a
+ * spill directory, evicted entries are written there and read back on a later miss; the
+ * directory is per registry and tool version, since findings are only valid for those.
+ */
+@Slf4j
+public final class ContentFindingsCache {
+
+    /** Stands for the inspected file's path in stored evidence. */
+    private static final String FILE_PLACEHOLDER = "\u0000file\u0000";
+    /** Rough fixed cost of an entry and of a finding, on top of their strings. */
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int FINDING_OVERHEAD = 48;
+
+    /**
+     * Produces the findings of a file on a miss.
+     */
+    @FunctionalInterface
+    public interface Inspection<E extends Exception> {
+        List<Finding> findings() throws E;
+    }
+
+    private final long maxBytes;
+    private final Path spillDir;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxBytes memory bound of the cached findings, estimated from their string lengths
+     * @param spillDir directory for evicted entries, or null to drop them
+     */
+    public ContentFindingsCache(long maxBytes, Path spillDir) {
+        this.maxBytes = maxBytes;
+        this.spillDir = spillDir;
+    }
+
+    /**
+     * A cache spilling below {@code cacheDir}, in a directory of its own for this registry and
+     * tool version. When the build of the running tool is unknown, evicted entries are dropped
+     * instead: spilled findings could not be told apart from those of another build.
+     */
+    public static ContentFindingsCache spillingTo(long maxBytes, Path cacheDir, String registryFingerprint) {
+        String tool = Digests.toolVersion();
+        if (tool == null) {
+            log.debug("Build id unknown, not spilling content findings");
+            return new ContentFindingsCache(maxBytes, null);
+        }
+        String version = Digests.sha256((registryFingerprint + "\n" + tool)
+                .getBytes(StandardCharsets.UTF_8));
+        return new ContentFindingsCache(maxBytes, cacheDir.resolve("content").resolve(version));
+    }
+
+    /**
+     * The findings for a file's content, computing and caching them on a miss. Concurrent misses
+     * on the same key may both compute; the findings are the same either way.
+     *
+     * @param digest  SHA-256 of the file content
+     * @param scope   what produced the findings from the content (e.g. plugin id and file name)
+     * @param file    the file, whose path fills in the placeholder in replayed evidence
+     * @param compute produces the findings of {@code file} on a miss
+     */
+    public <E extends Exception> List<Finding> findings(String digest, String scope, Path file,
+                                                        Inspection<E> compute) throws E {
+        String key = scope + "@" + digest;
+        String path = file.toString();
+        Entry entry = get(key);
+        if (entry != null) return entry.resolve(path);
+
+        List<Finding> computed = compute.findings();
+        put(key, Entry.normalize(computed, path));
+        return computed;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private Entry get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry;
+            }
+        }
+        if (spillDir != null) {
+            Path spilled = spillFile(key);
+            if (Files.isRegularFile(spilled)) {
+                try {
+                    entry = CacheFiles.read(spilled, Entry.class);
+                    put(key, entry);
+                    synchronized (this) {
+                        hits++;
+                    }
+                    return entry;
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Cannot read spilled findings {}: {}", spilled, e.getMessage());
+                }
+            }
+        }
+        synchronized (this) {
+            misses++;
+        }
+        return null;
+    }
+
+    private void put(String key, Entry entry) {
+        List<Map.Entry<String, Entry>> evicted = null;
+        synchronized (this) {
+            Entry old = entries.put(key, entry);
+            if (old != null) bytes -= old.weight(key);
+            bytes += entry.weight(key);
+            var it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Entry> eldest = it.next();
+                it.remove();
+                bytes -= eldest.getValue().weight(eldest.getKey());
+                if (spillDir != null) {
+                    if (evicted == null) evicted = new ArrayList<>();
+                    evicted.add(eldest);
+                }
+            }
+        }
+        // Written outside the lock; a reader racing the write simply misses
+        if (evicted != null) {
+            for (Map.Entry<String, Entry> e : evicted) {
+                Path spilled = spillFile(e.getKey());
+                if (Files.exists(spilled)) continue;
+                try {
+                    CacheFiles.write(spilled, e.getValue());
+                } catch (IOException | RuntimeException ex) {
+                    log.debug("Cannot spill findings to {}: {}", spilled, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private Path spillFile(String key) {
+        String name = Digests.sha256(key.getBytes(StandardCharsets.UTF_8));
+        return spillDir.resolve(name.substring(0, 2)).resolve(name + ".json");
+    }
+
+    /** Normalized findings of one content. */
+    static final class Entry {
+        public List<Finding> findings;
+
+        static Entry normalize(List<Finding> findings, String path) {
+            Entry entry = new Entry();
+            entry.findings = new ArrayList<>(findings.size());
+            for (Finding f : findings) {
+                String evidence = f.evidence();
+                if (evidence != null && !path.isEmpty() && evidence.contains(path)) {
+                    evidence = evidence.replace(path, FILE_PLACEHOLDER);
+                }
+                entry.findings.add(new Finding(f.category(), f.key(), evidence));
+            }
+            return entry;
+        }
+
+        List<Finding> resolve(String path) {
+            Finding[] out = new Finding[findings.size()];
+            for (int i = 0; i < out.length; i++) {
+                Finding f = findings.get(i);
+                String evidence = f.evidence();
+                out[i] = evidence != null && evidence.contains(FILE_PLACEHOLDER)
+                        ? new Finding(f.category(), f.key(), evidence.replace(FILE_PLACEHOLDER, path))
+                        : f;
+            }
+            return Arrays.asList(out);
+        }
+
+        long weight(String key) {
+            long w = ENTRY_OVERHEAD + 2L * key.length();
+            for (Finding f : findings) {
+                w += FINDING_OVERHEAD + 2L * (f.category().length() + f.key().length()
+                        + (f.evidence() != null ? f.evidence().length() : 0));
+            }
+            return w;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.detector.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * SHA-256 helpers shared by the caches.
+ */
+@Slf4j
+public final class Digests {
+
+    private static final String BUILD_PROPERTIES = "/META-INF/tech-detector/build.properties";
+
+    private Digests() {
+    }
+
+    /**
+     * Hex SHA-256 of a file's content, or null if it cannot be read.
+     */
+    public static String sha256(Path file) {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) digest.update(buffer, 0, n);
+        } catch (IOException e) {
+            log.debug("Cannot hash {}: {}", file, e.getMessage());
+            return null;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hex SHA-256 of some bytes.
+     */
+    public static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    /**
+     * Id of the running build, the project version and build timestamp filtered into
+     * {@value #BUILD_PROPERTIES} by Maven, or null when it is unknown (e.g. classes compiled by an
+     * IDE without resource filtering). Cached findings are only reused by the build that produced
+     * them; with an unknown build nothing is persisted or reused.
+     */
+    static String toolVersion() {
+        return BuildId.VALUE;
+    }
+
+    /** Reads the build id once, on first use. */
+    private static final class BuildId {
+        static final String VALUE = load();
+
+        private static String load() {
+            try (InputStream in = Digests.class.getResourceAsStream(BUILD_PROPERTIES)) {
+                if (in == null) return null;
+                Properties properties = new Properties();
+                properties.load(in);
+                String id = properties.getProperty("build.id");
+                return id == null || id.isBlank() || id.contains("${") ? null : id.trim();
+            } catch (IOException e) {
+                log.debug("Cannot read {}: {}", BUILD_PROPERTIES, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.detector.cache;
+
+import com.example.detector.engine.ParallelFileWalker;
+import com.example.detector.model.Finding;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-disk record of an earlier file-based scan of one project root: for every file the
+ * fingerprint it had (size, modification time, optionally a SHA-256 of its content) and the
+ * findings each plugin produced for it, plus the listings of the directories walked.
+ *
+ * A scan {@link #lookup looks up} each file before running plugins on it; while the fingerprint
+ * still matches, the stored findings are replayed instead. Everything the scan uses is
+ * {@link #record recorded} again, so {@link #save()} writes a store holding exactly the files of
+ * the latest scan. A store written with another format version, another registry or another
+ * version of the tool is discarded on {@link #open}; when the build of the running tool is
+ * unknown, no store is read or written at all.
+ *
+ * Lookups and records may come from several threads at once.
+ */
+@Slf4j
+public final class IncrementalScanCache implements ParallelFileWalker.ListingCache {
+
+    /** Bumped whenever the layout of the store changes. */
+    static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final boolean contentHash;
+    private final Store previous;
+    private final Store next;
+
+    private IncrementalScanCache(Path file, boolean contentHash, Store previous, Store next) {
+        this.file = file;
+        this.contentHash = contentHash;
+        this.previous = previous;
+        this.next = next;
+    }
+
+    /**
+     * Open the store of a project root, starting empty if there is none or it is stale.
+     *
+     * @param cacheDir            directory holding the stores of all project roots
+     * @param projectRoot         the scanned root; its absolute path names the store
+     * @param registryFingerprint fingerprint of the registry the findings depend on
+     * @param contentHash         whether to keep a content hash per file, so that a file whose
+     *                            modification time changed but whose content did not is still
+     *                            a hit
+     */
+    public static IncrementalScanCache open(Path cacheDir, Path projectRoot, String registryFingerprint,
+                                            boolean contentHash) {
+        Path file = cacheDir.resolve(Digests.sha256(projectRoot.toAbsolutePath().normalize().toString()
+                .getBytes(StandardCharsets.UTF_8)) + ".json");
+        Store next = new Store();
+        next.version = FORMAT_VERSION;
+        next.registry = registryFingerprint;
+        next.tool = Digests.toolVersion();
+
+        Store previous = null;
+        if (next.tool == null) {
+            log.debug("Build id unknown, not reusing scan cache {}", file);
+        } else if (Files.isRegularFile(file)) {
+            try {
+                Store loaded = CacheFiles.read(file, Store.class);
+                if (loaded.version == next.version && Objects.equals(loaded.registry, next.registry)
+                        && Objects.equals(loaded.tool, next.tool)) {
+                    previous = loaded;
+                } else {
+                    log.debug("Discarding stale scan cache {}", file);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Cannot read scan cache {}: {}", file, e.getMessage());
+            }
+        }
+        if (previous == null) previous = new Store();
+        return new IncrementalScanCache(file, contentHash, previous, next);
+    }
+
+    /**
+     * The record of a file from the earlier scan, if its fingerprint still matches.
+     *
+     * @param relPath '/'-separated path relative to the project root
+     * @return the record, or null if the file is new or changed
+     */
+    public FileRecord lookup(String relPath, Path path, BasicFileAttributes attrs) {
+        FileRecord old = previous.files.get(relPath);
+        if (old == null || old.size != attrs.size()) return null;
+        long modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        if (old.modified == modified) return old;
+        if (!contentHash || old.hash == null) return null;
+        String hash = Digests.sha256(path);
+        if (!old.hash.equals(hash)) return null;
+        // Touched but unchanged: keep the findings under the new modification time
+        FileRecord touched = new FileRecord();
+        touched.size = old.size;
+        touched.modified = modified;
+        touched.hash = hash;
+        touched.findings = old.findings;
+        return touched;
+    }
+
+    /**
+     * Record a file for the next scan.
+     *
+     * @param previous what {@link #lookup} returned for the file; its hash is reused
+     * @param findings the findings of each plugin that inspected the file, by plugin id
+     */
+    public void record(String relPath, Path path, BasicFileAttributes attrs, FileRecord previous,
+                       Map<String, List<Finding>> findings) {
+        FileRecord rec = new FileRecord();
+        rec.size = attrs.size();
+        rec.modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        if (contentHash) rec.hash = previous != null && previous.hash != null ? previous.hash : Digests.sha256(path);
+        rec.findings = new TreeMap<>(findings);
+        next.files.put(relPath, rec);
+    }
+
+    @Override
+    public List<String> listing(String relDir, long modifiedNanos) {
+        DirRecord old = previous.directories.get(relDir);
+        if (old == null || old.modified != modifiedNanos) return null;
+        next.directories.put(relDir, old);
+        return old.names;
+    }
+
+    @Override
+    public void record(String relDir, long modifiedNanos, List<String> names) {
+        DirRecord rec = new DirRecord();
+        rec.modified = modifiedNanos;
+        rec.names = List.copyOf(names);
+        next.directories.put(relDir, rec);
+    }
+
+    /**
+     * Write what was recorded, replacing the earlier store atomically. Failures are logged; a
+     * missing store only costs a full scan next time. Nothing is written when the build of the
+     * running tool is unknown.
+     */
+    public void save() {
+        if (next.tool == null) return;
+        try {
+            CacheFiles.write(file, next);
+            log.debug("Saved scan cache {} ({} files)", file, next.files.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot write scan cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /** The serialized store. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static final class Store {
+        public int version;
+        public String registry;
+        public String tool;
+        public Map<String, FileRecord> files = new ConcurrentHashMap<>();
+        public Map<String, DirRecord> directories = new ConcurrentHashMap<>();
+    }
+
+    /** Fingerprint and per-plugin findings of one file. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static final class FileRecord {
+        public long size;
+        /** Modification time in nanoseconds since the epoch. */
+        public long modified;
+        public String hash;
+        public Map<String, List<Finding>> findings = new TreeMap<>();
+
+        /**
+         * The findings a plugin produced for this file, or null if it did not inspect it.
+         */
+        public List<Finding> findings(String pluginId) {
+            return findings.get(pluginId);
+        }
+    }
+
+    /** Modification time and entry names of one directory. */
+    static final class DirRecord {
+        public long modified;
+        public List<String> names;
+    }
+}
@@ -1,52 +1,119 @@
 package com.example.detector.cli;
 
+import com.example.detector.daemon.DaemonClient;
+import com.example.detector.daemon.ScanDaemon;
 import com.example.detector.engine.DetectorService;
+import com.example.detector.metrics.ScanMetrics;
+import com.example.detector.metrics.StatsReport;
 import com.example.detector.model.DetectionResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
 public class CliRunner implements CommandLineRunner {
     private final DetectorService detectorService;
+    private final ScanMetrics scanMetrics;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public CliRunner(DetectorService detectorService) {
+    public CliRunner(DetectorService detectorService, ScanMetrics scanMetrics) {
         this.detectorService = detectorService;
+        this.scanMetrics = scanMetrics;
     }
 
     @Override
     public void run(String... args) throws Exception {
+        if (Arrays.asList(args).contains(ScanDaemon.DAEMON_FLAG)) {
+            // Serve until the process is stopped, keeping registry, plugins and JIT warm
+            new ScanDaemon(ScanDaemon.socketPath(args), Runtime.getRuntime().availableProcessors(), this::executeForwarded)
+                .serve();
+            return;
+        }
+        System.exit(execute(args, System.out, System.err));
+    }
+
+    /**
+     * Run an invocation forwarded to the daemon. Clients scan locally instead of sending what the
+     * daemon cannot honor, so rejecting it here only guards against other clients.
+     */
+    private int executeForwarded(String[] args, PrintStream out, PrintStream err) throws Exception {
+        String unsupported = DaemonClient.unsupportedByDaemon(args);
+        if (unsupported != null) {
+            log.error("Daemon request with unsupported argument: {}", unsupported);
+            err.println("Error: the scan daemon cannot apply " + unsupported);
+            return 1;
+        }
+        return execute(args, out, err);
+    }
+
+    /**
+     * Run one CLI invocation, writing results to {@code out} and errors to {@code err}.
+     *
+     * @return the process exit code
+     */
+    public int execute(String[] args, PrintStream out, PrintStream err) throws Exception {
         log.info("Tech Detector CLI starting with {} argument(s)", args.length);
         
         if (args.length == 0) {
             log.warn("No arguments provided, showing usage");
-            printUsage();
-            System.exit(1);
-            return;
+            printUsage(out);
+            return 1;
         }
 
         List<Path> pathsToScan = new ArrayList<>();
         boolean prettyPrint = true;
         boolean aggregate = false;
+        int parallel = Runtime.getRuntime().availableProcessors();
+        boolean ndjson = false;
+        String stats = null;
 
         // Parse command-line arguments
         for (String arg : args) {
             if (arg.equals("--help") || arg.equals("-h")) {
-                printUsage();
-                System.exit(0);
-                return;
+                printUsage(out);
+                return 0;
             } else if (arg.equals("--compact") || arg.equals("-c")) {
                 prettyPrint = false;
             } else if (arg.equals("--aggregate") || arg.equals("-a")) {
                 aggregate = true;
+            } else if (arg.startsWith("--parallel=")) {
+                try {
+                    parallel = Integer.parseInt(arg.substring("--parallel=".length()));
+                } catch (NumberFormatException e) {
+                    parallel = 0;
+                }
+                if (parallel < 1) {
+                    log.error("Invalid --parallel value: {}", arg);
+                    err.println("Error: --parallel must be a positive number: " + arg);
+                    return 1;
+                }
+            } else if (arg.startsWith("--format=")) {
+                String format = arg.substring("--format=".length());
+                if (format.equals("ndjson")) {
+                    ndjson = true;
+                } else if (!format.equals("json")) {
+                    log.error("Unknown output format: {}", format);
+                    err.println("Error: Unknown output format: " + format);
+                    return 1;
+                }
+            } else if (arg.equals("--stats") || arg.startsWith("--stats=")) {
+                stats = arg.equals("--stats") ? "table" : arg.substring("--stats=".length());
+                if (!stats.equals("table") && !stats.equals("json")) {
+                    log.error("Unknown stats format: {}", stats);
+                    err.println("Error: Unknown stats format: " + stats);
+                    return 1;
+                }
             } else if (arg.startsWith("--path=")) {
                 pathsToScan.add(Path.of(arg.substring("--path=".length())));
             } else if (!arg.startsWith("-")) {
@@ -57,13 +124,13 @@ public class CliRunner implements CommandLineRunner {
 
         if (pathsToScan.isEmpty()) {
             log.error("No project path specified in arguments");
-            System.err.println("Error: No project path specified.");
-            printUsage();
-            System.exit(1);
-            return;
+            err.println("Error: No project path specified.");
+            printUsage(out);
+            return 1;
         }
 
-        log.info("Scanning {} path(s) - aggregate: {}, prettyPrint: {}", pathsToScan.size(), aggregate, prettyPrint);
+        log.info("Scanning {} path(s) - aggregate: {}, prettyPrint: {}, parallel: {}, ndjson: {}",
+                pathsToScan.size(), aggregate, prettyPrint, parallel, ndjson);
 
         // Scan and output results
         if (aggregate && pathsToScan.size() == 1) {
@@ -71,95 +138,139 @@ public class CliRunner implements CommandLineRunner {
             Path rootPath = pathsToScan.get(0);
             if (!Files.exists(rootPath) || !Files.isDirectory(rootPath)) {
                 log.error("Path must be a directory for aggregate mode: {}", rootPath);
-                System.err.println("Error: Path must be a directory for aggregate mode: " + rootPath);
-                System.exit(1);
-                return;
+                err.println("Error: Path must be a directory for aggregate mode: " + rootPath);
+                return 1;
             }
 
             log.info("Aggregate mode: scanning subdirectories in {}", rootPath);
             java.util.Map<String, DetectionResult> results = new java.util.LinkedHashMap<>();
             try {
-                List<Path> children = Files.list(rootPath)
-                    .filter(Files::isDirectory)
-                    .toList();
+                List<Path> children;
+                try (Stream<Path> listing = Files.list(rootPath)) {
+                    // Sorted, so that the output does not depend on directory order
+                    children = listing.filter(Files::isDirectory)
+                        .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                        .toList();
+                }
                 
                 log.debug("Found {} subdirectories to scan", children.size());
-                for (Path child : children) {
-                    log.info("Scanning subdirectory: {}", child.getFileName());
-                    results.put(child.getFileName().toString(), 
-                               detectorService.scanProject(child));
+                if (ndjson) {
+                    try (NdjsonWriter writer = new NdjsonWriter(mapper, out)) {
+                        detectorService.scanProjects(children, parallel, (child, result) -> writer.write(result));
+                    }
+                } else {
+                    detectorService.scanProjects(children, parallel,
+                        (child, result) -> results.put(child.getFileName().toString(), result));
                 }
                 log.info("Completed aggregate scan of {} subdirectories", children.size());
             } catch (Exception e) {
                 log.error("Error scanning directory: {}", rootPath, e);
-                System.err.println("Error scanning directory: " + e.getMessage());
-                System.exit(1);
-                return;
+                err.println("Error scanning directory: " + e.getMessage());
+                return 1;
             }
 
-            outputJson(results, prettyPrint);
+            if (!ndjson) outputJson(out, results, prettyPrint);
         } else {
             // Single or multiple path mode
             if (pathsToScan.size() == 1) {
                 Path path = pathsToScan.get(0);
                 if (!Files.exists(path)) {
                     log.error("Path does not exist: {}", path);
-                    System.err.println("Error: Path does not exist: " + path);
-                    System.exit(1);
-                    return;
+                    err.println("Error: Path does not exist: " + path);
+                    return 1;
                 }
                 log.info("Scanning single path: {}", path);
                 DetectionResult result = detectorService.scanProject(path);
                 log.info("Scan completed for path: {}", path);
-                outputJson(result, prettyPrint);
+                if (ndjson) {
+                    try (NdjsonWriter writer = new NdjsonWriter(mapper, out)) {
+                        writer.write(result);
+                    }
+                } else {
+                    outputJson(out, result, prettyPrint);
+                }
             } else {
                 // Multiple paths - output as map
                 log.info("Scanning {} paths", pathsToScan.size());
                 java.util.Map<String, DetectionResult> results = new java.util.LinkedHashMap<>();
+                List<Path> existing = new ArrayList<>();
                 for (Path path : pathsToScan) {
                     if (Files.exists(path)) {
-                        log.debug("Scanning path: {}", path);
-                        results.put(path.toString(), detectorService.scanProject(path));
+                        existing.add(path);
                     } else {
                         log.warn("Path does not exist, skipping: {}", path);
-                        System.err.println("Warning: Path does not exist, skipping: " + path);
+                        err.println("Warning: Path does not exist, skipping: " + path);
                     }
                 }
-                log.info("Completed scan of {} paths", results.size());
-                outputJson(results, prettyPrint);
+                if (ndjson) {
+                    try (NdjsonWriter writer = new NdjsonWriter(mapper, out)) {
+                        detectorService.scanProjects(existing, parallel, (path, result) -> writer.write(result));
+                    }
+                    log.info("Completed scan of {} paths", existing.size());
+                } else {
+                    detectorService.scanProjects(existing, parallel, (path, result) -> results.put(path.toString(), result));
+                    log.info("Completed scan of {} paths", results.size());
+                    outputJson(out, results, prettyPrint);
+                }
             }
         }
 
+        if (stats != null) printStats(err, stats.equals("json"));
         log.info("Tech Detector CLI completed successfully");
-        System.exit(0);
+        return 0;
+    }
+
+    /**
+     * Scan statistics go to the error stream, so that they never mix with the results on stdout.
+     */
+    private void printStats(PrintStream err, boolean json) throws Exception {
+        StatsReport report = StatsReport.of(scanMetrics);
+        if (json) {
+            err.println(mapper.writeValueAsString(report));
+        } else {
+            err.print(report.toTable());
+        }
     }
 
-    private void outputJson(Object result, boolean prettyPrint) throws Exception {
+    private void outputJson(PrintStream out, Object result, boolean prettyPrint) throws Exception {
         if (prettyPrint) {
-            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+            out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
         } else {
-            System.out.println(mapper.writeValueAsString(result));
+            out.println(mapper.writeValueAsString(result));
         }
     }
 
-    private void printUsage() {
-        System.out.println("Tech Detector - SBOM-based technology detection tool");
-        System.out.println();
-        System.out.println("Usage: java -jar tech-detector.jar [OPTIONS] <path> [<path2> ...]");
-        System.out.println();
-        System.out.println("Arguments:");
-        System.out.println("  <path>                    Project directory or file path to scan");
-        System.out.println("  --path=<path>             Alternative way to specify path");
-        System.out.println();
-        System.out.println("Options:");
-        System.out.println("  -h, --help               Show this help message");
-        System.out.println("  -c, --compact            Output compact JSON (no pretty printing)");
-        System.out.println("  -a, --aggregate          Scan all subdirectories and aggregate results");
-        System.out.println();
-        System.out.println("Examples:");
-        System.out.println("  java -jar tech-detector.jar /path/to/project");
-        System.out.println("  java -jar tech-detector.jar --path=/path/to/project --compact");
-        System.out.println("  java -jar tech-detector.jar --aggregate /path/to/multi-project-root");
-        System.out.println("  java -jar tech-detector.jar /path/to/project1 /path/to/project2");
+    private void printUsage(PrintStream out) {
+        out.println("Tech Detector - SBOM-based technology detection tool");
+        out.println();
+        out.println("Usage: java -jar tech-detector.jar [OPTIONS] <path> [<path2> ...]");
+        out.println();
+        out.println("Arguments:");
+        out.println("  <path>                    Project directory or file path to scan");
+        out.println("  --path=<path>             Alternative way to specify path");
+        out.println();
+        out.println("Options:");
+        out.println("  -h, --help               Show this help message");
+        out.println("  -c, --compact            Output compact JSON (no pretty printing)");
+        out.println("  -a, --aggregate          Scan all subdirectories and aggregate results");
+        out.println("  --parallel=<n>           Projects scanned at the same time (default: number of cores)");
+        out.println("  --format=<json|ndjson>   Output one JSON document (default), or one result per line,");
+        out.println("                           written as each project completes");
+        out.println("  --stats[=<table|json>]   Print scan statistics (files, bytes, time per plugin, SBOM");
+        out.println("                           parsing, registry matching) to stderr when done; with --client,");
+        out.println("                           the scan runs locally so that they cover this invocation only");
+        out.println("  --detector.scan.full-evidence=true");
+        out.println("                           List every piece of evidence with absolute paths, instead of");
+        out.println("                           the first 20 per technology relative to the project");
+        out.println("                           (with --client, such properties make the scan run locally)");
+        out.println();
+        out.println("Examples:");
+        out.println("  java -jar tech-detector.jar /path/to/project");
+        out.println("  java -jar tech-detector.jar --path=/path/to/project --compact");
+        out.println("  java -jar tech-detector.jar --aggregate /path/to/multi-project-root");
+        out.println("  java -jar tech-detector.jar /path/to/project1 /path/to/project2");
+        out.println("  java -jar tech-detector.jar --aggregate --parallel=16 /path/to/many-repos");
+        out.println("  java -jar tech-detector.jar --aggregate --format=ndjson /path/to/many-repos");
+        out.println("  java -jar tech-detector.jar --aggregate --stats /path/to/many-repos");
     }
 }
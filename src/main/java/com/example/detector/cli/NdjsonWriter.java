@@ -0,0 +1,43 @@
+package com.example.detector.cli;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line (NDJSON) and flushes after each, so that a consumer sees
+ * every record as soon as it is written and nothing accumulates in memory.
+ */
+class NdjsonWriter implements Closeable {
+
+    private final ObjectMapper mapper;
+    private final JsonGenerator generator;
+
+    NdjsonWriter(ObjectMapper mapper, OutputStream out) throws IOException {
+        this.mapper = mapper;
+        this.generator = mapper.getFactory().createGenerator(new BufferedOutputStream(out, 1 << 16));
+        // Records are separated by newlines, not by the default space between root values
+        this.generator.setRootValueSeparator(null);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    void write(Object record) {
+        try {
+            mapper.writeValue(generator, record);
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.detector.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Immutable Aho-Corasick automaton: finds every occurrence of a set of patterns in a text in
+ * a single left-to-right pass, independent of the number of patterns. Each pattern carries
+ * one or more payloads, which are reported once per occurrence.
+ *
+ * Transitions are stored per state as a sorted char array searched with binary search,
+ * which keeps the automaton compact for the small alphabets found in package names.
+ *
+ * @param <T> payload type
+ */
+public final class AhoCorasick<T> {
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    /** Nearest state reachable via fail links (excluding self) that has outputs, or -1. */
+    private final int[] outputLink;
+    private final List<List<T>> outputs;
+
+    private AhoCorasick(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] outputLink, List<List<T>> outputs) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputLink = outputLink;
+        this.outputs = outputs;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return fail.length;
+    }
+
+    /**
+     * Report the payloads of every pattern occurring in {@code text}.
+     */
+    public void scan(CharSequence text, Consumer<T> sink) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int s = outputs.get(state).isEmpty() ? outputLink[state] : state; s >= 0; s = outputLink[s]) {
+                for (T payload : outputs.get(s)) {
+                    sink.accept(payload);
+                }
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int idx = Arrays.binarySearch(edgeChars[state], c);
+        return idx >= 0 ? edgeTargets[state][idx] : -1;
+    }
+
+    public static final class Builder<T> {
+        private final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        private final List<List<T>> outputs = new ArrayList<>();
+        private final Map<String, Integer> terminals = new HashMap<>();
+
+        private Builder() {
+            newState();
+        }
+
+        /**
+         * Add a pattern; empty patterns are ignored.
+         */
+        public Builder<T> add(String pattern, T payload) {
+            if (pattern == null || pattern.isEmpty()) return this;
+            Integer terminal = terminals.get(pattern);
+            if (terminal == null) {
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = pattern.charAt(i);
+                    Integer next = trie.get(state).get(c);
+                    if (next == null) {
+                        next = newState();
+                        trie.get(state).put(c, next);
+                    }
+                    state = next;
+                }
+                terminal = state;
+                terminals.put(pattern, terminal);
+            }
+            outputs.get(terminal).add(payload);
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            int n = trie.size();
+            char[][] edgeChars = new char[n][];
+            int[][] edgeTargets = new int[n][];
+            for (int s = 0; s < n; s++) {
+                TreeMap<Character, Integer> edges = trie.get(s);
+                edgeChars[s] = new char[edges.size()];
+                edgeTargets[s] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> e : edges.entrySet()) {
+                    edgeChars[s][i] = e.getKey();
+                    edgeTargets[s][i] = e.getValue();
+                    i++;
+                }
+            }
+
+            // Breadth-first construction of fail and output links
+            int[] fail = new int[n];
+            int[] outputLink = new int[n];
+            Arrays.fill(outputLink, -1);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int target : edgeTargets[0]) {
+                fail[target] = 0;
+                queue.add(target);
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                for (int i = 0; i < edgeChars[s].length; i++) {
+                    char c = edgeChars[s][i];
+                    int child = edgeTargets[s][i];
+                    int f = fail[s];
+                    int next;
+                    while ((next = find(edgeChars, edgeTargets, f, c)) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = (next >= 0 && next != child) ? next : 0;
+                    int fc = fail[child];
+                    outputLink[child] = !outputs.get(fc).isEmpty() ? fc : outputLink[fc];
+                    queue.add(child);
+                }
+            }
+
+            List<List<T>> frozen = new ArrayList<>(n);
+            for (List<T> out : outputs) {
+                frozen.add(List.copyOf(out));
+            }
+            return new AhoCorasick<>(edgeChars, edgeTargets, fail, outputLink, frozen);
+        }
+
+        private int newState() {
+            trie.add(new TreeMap<>());
+            outputs.add(new ArrayList<>());
+            return trie.size() - 1;
+        }
+
+        private static int find(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+            int idx = Arrays.binarySearch(edgeChars[state], c);
+            return idx >= 0 ? edgeTargets[state][idx] : -1;
+        }
+    }
+}
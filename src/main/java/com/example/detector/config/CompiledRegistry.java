@@ -0,0 +1,150 @@
+package com.example.detector.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typed, immutable view of registry.json, built once when the registry is loaded so that
+ * matchers never have to walk the raw JSON tree per component.
+ */
+@Slf4j
+public final class CompiledRegistry {
+    private final Map<String, RegistrySection> sections;
+    private final List<RegistryEntry> entries;
+    private final ContainsIndex containsIndex;
+    private final ExactIndex exactIndex;
+
+    private CompiledRegistry(Map<String, RegistrySection> sections, List<RegistryEntry> entries) {
+        this.sections = Collections.unmodifiableMap(sections);
+        this.entries = List.copyOf(entries);
+        this.containsIndex = new ContainsIndex(entries);
+        this.exactIndex = new ExactIndex(entries);
+    }
+
+    public static CompiledRegistry compile(JsonNode registry) {
+        Map<String, RegistrySection> sections = new LinkedHashMap<>();
+        List<RegistryEntry> all = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> it = registry.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> section = it.next();
+            if (!section.getValue().isObject()) continue;
+            RegistrySection compiled = compileSection(section.getKey(), section.getValue(), all.size());
+            sections.put(section.getKey(), compiled);
+            all.addAll(compiled.getEntries());
+        }
+        CompiledRegistry compiled = new CompiledRegistry(sections, all);
+        log.debug("Compiled registry: {} entries, {} contains pattern(s)",
+                all.size(), compiled.containsIndex.getPatternCount());
+        return compiled;
+    }
+
+    /**
+     * The named section, or an empty section if the registry has none by that name.
+     */
+    public RegistrySection section(String name) {
+        return sections.getOrDefault(name, RegistrySection.EMPTY);
+    }
+
+    public Map<String, RegistrySection> getSections() {
+        return sections;
+    }
+
+    /**
+     * Entry by {@link RegistryEntry#getId() id}.
+     */
+    public RegistryEntry entry(int id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Multi-pattern index over all {@code contains} entries of all sections.
+     */
+    public ContainsIndex getContainsIndex() {
+        return containsIndex;
+    }
+
+    /**
+     * Hash index over all {@code exact} entries of all sections.
+     */
+    public ExactIndex getExactIndex() {
+        return exactIndex;
+    }
+
+    private static RegistrySection compileSection(String sectionName, JsonNode sectionNode, int firstId) {
+        List<RegistryEntry> entries = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> it = sectionNode.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> e = it.next();
+            JsonNode node = e.getValue();
+            if (node == null || !node.isObject()) continue;
+
+            String purlMatchValue = node.path("purlMatch").asText("");
+            PurlMatch purlMatch = PurlMatch.from(purlMatchValue);
+            if (purlMatch == PurlMatch.NONE) {
+                log.warn("Registry entry {}.{} has unknown purlMatch '{}'; its sbomMatch patterns will not match PURLs",
+                        sectionName, e.getKey(), purlMatchValue);
+            }
+
+            MatchMode mode = MatchMode.from(node.path("match").asText("contains"));
+            boolean regex = mode == MatchMode.REGEX;
+            RegistryEntry entry = new RegistryEntry(
+                    firstId + entries.size(),
+                    sectionName,
+                    e.getKey(),
+                    mode,
+                    purlMatch,
+                    patterns(node.path("keywords"), regex),
+                    patterns(node.path("sbomMatch"), regex),
+                    patterns(node.path("files"), regex),
+                    lowerStrings(node.path("indicators")),
+                    Set.copyOf(lowerStrings(node.path("ecosystems"))));
+            reportInvalidRegex(entry);
+            entries.add(entry);
+        }
+        return new RegistrySection(sectionName, firstId, entries);
+    }
+
+    private static List<RegistryPattern> patterns(JsonNode array, boolean regex) {
+        if (!array.isArray()) return List.of();
+        List<RegistryPattern> out = new ArrayList<>();
+        for (JsonNode n : array) {
+            if (n.isTextual() && !n.asText().isBlank()) {
+                out.add(new RegistryPattern(n.asText(), regex));
+            }
+        }
+        return List.copyOf(out);
+    }
+
+    private static void reportInvalidRegex(RegistryEntry entry) {
+        List<RegistryPattern> all = new ArrayList<>(entry.getKeywords());
+        all.addAll(entry.getSbomMatch());
+        all.addAll(entry.getFiles());
+        for (RegistryPattern p : all) {
+            if (p.getRegexError() != null) {
+                log.warn("Registry entry {} has an invalid regex '{}' ({}); it will be matched as plain text",
+                        entry, p.getRaw(), p.getRegexError());
+            }
+        }
+    }
+
+    private static List<String> lowerStrings(JsonNode array) {
+        if (!array.isArray()) return List.of();
+        Set<String> out = new LinkedHashSet<>();
+        for (JsonNode n : array) {
+            if (n.isTextual() && !n.asText().isBlank()) {
+                out.add(n.asText().trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return List.copyOf(out);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.detector.config;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * One {@link AhoCorasick} automaton over the patterns of every {@code match: "contains"} entry
+ * in every registry section. Scanning a text once reports the ids of all entries with a pattern
+ * occurring in it, split by where the pattern came from, because keywords/files are matched
+ * against the whole haystack while sbomMatch patterns are matched against PURL components.
+ */
+public final class ContainsIndex {
+
+    private static final int SOURCE_TEXT = 0;
+    private static final int SOURCE_SBOM = 1;
+
+    /** Payload: entry id in the upper bits, pattern source in the lowest bit. */
+    private final AhoCorasick<Integer> automaton;
+    private final int patternCount;
+
+    ContainsIndex(Collection<RegistryEntry> entries) {
+        AhoCorasick.Builder<Integer> builder = AhoCorasick.builder();
+        int count = 0;
+        for (RegistryEntry entry : entries) {
+            if (entry.getMatchMode() != MatchMode.CONTAINS) continue;
+            for (RegistryPattern p : entry.getKeywords()) {
+                builder.add(p.getLower(), payload(entry, SOURCE_TEXT));
+                count++;
+            }
+            for (RegistryPattern p : entry.getFiles()) {
+                builder.add(p.getLower(), payload(entry, SOURCE_TEXT));
+                count++;
+            }
+            for (RegistryPattern p : entry.getSbomMatch()) {
+                builder.add(p.getLower(), payload(entry, SOURCE_SBOM));
+                count++;
+            }
+        }
+        this.automaton = builder.build();
+        this.patternCount = count;
+    }
+
+    /**
+     * Scan a lower-cased text once.
+     *
+     * @param textHits receives the ids of entries whose keywords or files patterns occur; may be null
+     * @param sbomHits receives the ids of entries whose sbomMatch patterns occur; may be null
+     */
+    public void scan(String lowerText, BitSet textHits, BitSet sbomHits) {
+        if (lowerText == null || lowerText.isEmpty()) return;
+        automaton.scan(lowerText, payload -> {
+            BitSet target = (payload & 1) == SOURCE_TEXT ? textHits : sbomHits;
+            if (target != null) target.set(payload >>> 1);
+        });
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    private static Integer payload(RegistryEntry entry, int source) {
+        return (entry.getId() << 1) | source;
+    }
+}
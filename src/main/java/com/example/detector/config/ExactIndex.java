@@ -0,0 +1,50 @@
+package com.example.detector.config;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hash index over the patterns of every {@code match: "exact"} entry in every registry section.
+ * Exact patterns only ever match a normalised key of a component (its whole haystack or one of
+ * its PURL forms), so instead of comparing each pattern with each key a component resolves with
+ * one map lookup per key. As with {@link ContainsIndex}, hits are split by where the pattern
+ * came from: keywords/files versus sbomMatch.
+ */
+public final class ExactIndex {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final Map<String, BitSet> text = new HashMap<>();
+    private final Map<String, BitSet> sbom = new HashMap<>();
+
+    ExactIndex(Collection<RegistryEntry> entries) {
+        for (RegistryEntry entry : entries) {
+            if (entry.getMatchMode() != MatchMode.EXACT) continue;
+            for (RegistryPattern p : entry.getKeywords()) add(text, p, entry);
+            for (RegistryPattern p : entry.getFiles()) add(text, p, entry);
+            for (RegistryPattern p : entry.getSbomMatch()) add(sbom, p, entry);
+        }
+    }
+
+    public boolean isEmpty() {
+        return text.isEmpty() && sbom.isEmpty();
+    }
+
+    /**
+     * Look up one lower-cased key.
+     *
+     * @param textHits receives the ids of entries with a keywords or files pattern equal to the key; may be null
+     * @param sbomHits receives the ids of entries with a sbomMatch pattern equal to the key; may be null
+     */
+    public void lookup(String lowerKey, BitSet textHits, BitSet sbomHits) {
+        if (lowerKey == null) return;
+        if (textHits != null) textHits.or(text.getOrDefault(lowerKey, NONE));
+        if (sbomHits != null) sbomHits.or(sbom.getOrDefault(lowerKey, NONE));
+    }
+
+    private static void add(Map<String, BitSet> index, RegistryPattern p, RegistryEntry entry) {
+        index.computeIfAbsent(p.getLower(), k -> new BitSet()).set(entry.getId());
+    }
+}
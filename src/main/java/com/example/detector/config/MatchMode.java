@@ -0,0 +1,27 @@
+package com.example.detector.config;
+
+import java.util.Locale;
+
+/**
+ * How the patterns of a registry entry are compared, from the entry's {@code match} field.
+ */
+public enum MatchMode {
+    CONTAINS,
+    EXACT,
+    REGEX;
+
+    /**
+     * Resolve a registry {@code match} value; missing or unknown values mean {@link #CONTAINS}.
+     */
+    public static MatchMode from(String value) {
+        if (value == null) return CONTAINS;
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "exact":
+                return EXACT;
+            case "regex":
+                return REGEX;
+            default:
+                return CONTAINS;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.detector.config;
+
+import java.util.Locale;
+
+/**
+ * Which PURL component the {@code sbomMatch} patterns of a registry entry are compared with,
+ * from the entry's {@code purlMatch} field.
+ */
+public enum PurlMatch {
+    /** Match the (URL-decoded) namespace only; the default. */
+    NAMESPACE,
+    /** Match the name only, and never match scoped packages (packages with a namespace). */
+    NAME,
+    /** Match either the namespace or the name. */
+    BOTH,
+    /** Unrecognised setting: sbomMatch patterns never match a PURL. */
+    NONE;
+
+    public boolean checksNamespace() {
+        return this == NAMESPACE || this == BOTH;
+    }
+
+    public boolean checksName() {
+        return this == NAME || this == BOTH;
+    }
+
+    /**
+     * Resolve a registry {@code purlMatch} value; missing or blank values mean {@link #NAMESPACE}.
+     */
+    public static PurlMatch from(String value) {
+        if (value == null || value.isBlank()) return NAMESPACE;
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "namespace":
+                return NAMESPACE;
+            case "name":
+                return NAME;
+            case "both":
+                return BOTH;
+            default:
+                return NONE;
+        }
+    }
+}
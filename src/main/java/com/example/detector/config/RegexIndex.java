@@ -0,0 +1,147 @@
+package com.example.detector.config;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The patterns of all {@code match: "regex"} entries of one registry section merged into a
+ * single expression, so one matcher pass over a text finds every entry with a pattern that
+ * occurs in it.
+ *
+ * Every pattern becomes an optional lookahead with a named group, {@code (?=(?<rN>pattern))?};
+ * the merged expression matches empty at each position of the text and records which groups
+ * participated there, which is exactly the set of patterns {@code find()} would locate
+ * individually. Malformed patterns take part as quoted literals, mirroring their "contains"
+ * fallback. Patterns using back-references cannot be renumbered and are matched on their own.
+ */
+public final class RegexIndex {
+    static final RegexIndex EMPTY = new RegexIndex(List.of());
+
+    private final Merged text;
+    private final Merged sbom;
+
+    RegexIndex(List<RegistryEntry> regexEntries) {
+        Merged.Builder textBuilder = new Merged.Builder();
+        Merged.Builder sbomBuilder = new Merged.Builder();
+        for (RegistryEntry entry : regexEntries) {
+            for (RegistryPattern p : entry.getKeywords()) textBuilder.add(entry.getId(), p);
+            for (RegistryPattern p : entry.getFiles()) textBuilder.add(entry.getId(), p);
+            for (RegistryPattern p : entry.getSbomMatch()) sbomBuilder.add(entry.getId(), p);
+        }
+        this.text = textBuilder.build();
+        this.sbom = sbomBuilder.build();
+    }
+
+    public boolean isEmpty() {
+        return text == null && sbom == null;
+    }
+
+    /**
+     * Scan a lower-cased text once.
+     *
+     * @param textHits receives the ids of entries whose keywords or files patterns occur; may be null
+     * @param sbomHits receives the ids of entries whose sbomMatch patterns occur; may be null
+     */
+    public void scan(String lowerText, BitSet textHits, BitSet sbomHits) {
+        if (lowerText == null) return;
+        if (textHits != null && text != null) text.scan(lowerText, textHits);
+        if (sbomHits != null && sbom != null) sbom.scan(lowerText, sbomHits);
+    }
+
+    private static final class Merged {
+        private final Pattern pattern;
+        private final String[] groupNames;
+        private final int[] groupEntryIds;
+        private final List<Pattern> separate;
+        private final int[] separateEntryIds;
+
+        private Merged(Pattern pattern, int[] groupEntryIds, List<Pattern> separate, int[] separateEntryIds) {
+            this.pattern = pattern;
+            this.groupEntryIds = groupEntryIds;
+            this.groupNames = new String[groupEntryIds.length];
+            for (int g = 0; g < groupNames.length; g++) {
+                groupNames[g] = "r" + g;
+            }
+            this.separate = separate;
+            this.separateEntryIds = separateEntryIds;
+        }
+
+        void scan(String lowerText, BitSet hits) {
+            if (pattern != null) {
+                Matcher m = pattern.matcher(lowerText);
+                while (m.find()) {
+                    for (int g = 0; g < groupEntryIds.length; g++) {
+                        if (m.start(groupNames[g]) >= 0) hits.set(groupEntryIds[g]);
+                    }
+                }
+            }
+            for (int i = 0; i < separate.size(); i++) {
+                if (!hits.get(separateEntryIds[i]) && separate.get(i).matcher(lowerText).find()) {
+                    hits.set(separateEntryIds[i]);
+                }
+            }
+        }
+
+        static final class Builder {
+            private final StringBuilder expression = new StringBuilder();
+            private final List<Integer> groupEntryIds = new ArrayList<>();
+            private final List<Pattern> grouped = new ArrayList<>();
+            private final List<Pattern> separate = new ArrayList<>();
+            private final List<Integer> separateEntryIds = new ArrayList<>();
+
+            void add(int entryId, RegistryPattern p) {
+                String source;
+                Pattern own;
+                if (p.getRegex() == null) {
+                    source = Pattern.quote(p.getLower());
+                    own = Pattern.compile(source, RegistryPattern.REGEX_FLAGS);
+                } else if (usesBackReference(p.getRaw())) {
+                    separate.add(p.getRegex());
+                    separateEntryIds.add(entryId);
+                    return;
+                } else {
+                    source = p.getRaw();
+                    own = p.getRegex();
+                }
+                expression.append("(?=(?<r").append(groupEntryIds.size()).append('>')
+                        .append(source).append("))?");
+                groupEntryIds.add(entryId);
+                grouped.add(own);
+            }
+
+            Merged build() {
+                if (groupEntryIds.isEmpty() && separate.isEmpty()) return null;
+                Pattern merged = null;
+                if (!groupEntryIds.isEmpty()) {
+                    try {
+                        merged = Pattern.compile(expression.toString(), RegistryPattern.REGEX_FLAGS);
+                    } catch (PatternSyntaxException ex) {
+                        // e.g. the same named group declared by two patterns: match them one by one
+                        separate.addAll(grouped);
+                        separateEntryIds.addAll(groupEntryIds);
+                        groupEntryIds.clear();
+                    }
+                }
+                return new Merged(merged,
+                        groupEntryIds.stream().mapToInt(Integer::intValue).toArray(),
+                        List.copyOf(separate),
+                        separateEntryIds.stream().mapToInt(Integer::intValue).toArray());
+            }
+
+            private static boolean usesBackReference(String regex) {
+                for (int i = 0; i < regex.length() - 1; i++) {
+                    if (regex.charAt(i) == '\\') {
+                        char next = regex.charAt(i + 1);
+                        if ((next >= '1' && next <= '9') || next == 'k') return true;
+                        i++;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.detector.config;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One technology of a registry section (e.g. {@code frameworks.spring-boot}), compiled from
+ * registry.json: blank and non-text patterns are dropped, match settings are resolved to enums
+ * and patterns are pre-normalised.
+ */
+public final class RegistryEntry {
+    private final int id;
+    private final String section;
+    private final String key;
+    private final MatchMode matchMode;
+    private final PurlMatch purlMatch;
+    private final List<RegistryPattern> keywords;
+    private final List<RegistryPattern> sbomMatch;
+    private final List<RegistryPattern> files;
+    private final List<String> indicators;
+    private final Set<String> ecosystems;
+
+    RegistryEntry(int id, String section, String key, MatchMode matchMode, PurlMatch purlMatch,
+                  List<RegistryPattern> keywords, List<RegistryPattern> sbomMatch, List<RegistryPattern> files,
+                  List<String> indicators, Set<String> ecosystems) {
+        this.id = id;
+        this.section = section;
+        this.key = key;
+        this.matchMode = matchMode;
+        this.purlMatch = purlMatch;
+        this.keywords = keywords;
+        this.sbomMatch = sbomMatch;
+        this.files = files;
+        this.indicators = indicators;
+        this.ecosystems = ecosystems;
+    }
+
+    /**
+     * Position of this entry across all sections of the compiled registry, in registry order.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public MatchMode getMatchMode() {
+        return matchMode;
+    }
+
+    public PurlMatch getPurlMatch() {
+        return purlMatch;
+    }
+
+    public List<RegistryPattern> getKeywords() {
+        return keywords;
+    }
+
+    public List<RegistryPattern> getSbomMatch() {
+        return sbomMatch;
+    }
+
+    public List<RegistryPattern> getFiles() {
+        return files;
+    }
+
+    /** Lower-cased dependency indicators, used by the manifest detectors. */
+    public List<String> getIndicators() {
+        return indicators;
+    }
+
+    /**
+     * PURL types (e.g. {@code maven}, {@code npm}) this entry applies to; empty means all.
+     */
+    public Set<String> getEcosystems() {
+        return ecosystems;
+    }
+
+    public boolean appliesTo(String ecosystem) {
+        return ecosystems.isEmpty() || ecosystem == null || ecosystems.contains(ecosystem);
+    }
+
+    @Override
+    public String toString() {
+        return section + "." + key;
+    }
+}
@@ -6,17 +6,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Slf4j
 @Component
 public class RegistryLoader {
-    private final JsonNode registry;
     private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonNode registry;
+    private final CompiledRegistry compiledRegistry;
+    private String fingerprint = "";
 
     public RegistryLoader() {
         log.info("Loading technology registry from registry/registry.json");
         registry = loadRegistry();
-        log.info("Technology registry loaded successfully");
+        compiledRegistry = CompiledRegistry.compile(registry);
+        log.info("Technology registry loaded successfully ({} section(s))", compiledRegistry.getSections().size());
     }
 
     private JsonNode loadRegistry() {
@@ -25,7 +31,9 @@ public class RegistryLoader {
                 log.warn("Registry file not found at registry/registry.json, using empty registry");
                 return mapper.createObjectNode();
             }
-            JsonNode loaded = mapper.readTree(in);
+            byte[] bytes = in.readAllBytes();
+            fingerprint = sha256(bytes);
+            JsonNode loaded = mapper.readTree(bytes);
             log.debug("Registry loaded - checking sections: frameworks, cloud_sdks, databases");
             return loaded;
         } catch (Exception ex) {
@@ -34,7 +42,26 @@ public class RegistryLoader {
         }
     }
 
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
     public JsonNode getRegistry() { 
         return registry; 
     }
+
+    /**
+     * The registry compiled into typed entries; built once at load time.
+     */
+    public CompiledRegistry getCompiledRegistry() {
+        return compiledRegistry;
+    }
+
+    /**
+     * SHA-256 of the registry file as loaded; empty when no registry was found. Anything derived
+     * from registry matches (e.g. cached scan results) is only valid for the same fingerprint.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
 }
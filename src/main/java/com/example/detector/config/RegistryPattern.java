@@ -0,0 +1,63 @@
+package com.example.detector.config;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A single keyword / sbomMatch / files pattern of a registry entry, kept both as written
+ * and pre-lower-cased so matching never has to normalise it again. Patterns of
+ * {@code match: "regex"} entries are also compiled once here.
+ */
+public final class RegistryPattern {
+    static final int REGEX_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+
+    private final String raw;
+    private final String lower;
+    private final Pattern regex;
+    private final String regexError;
+
+    RegistryPattern(String raw, boolean compileRegex) {
+        this.raw = raw;
+        this.lower = raw.toLowerCase(Locale.ROOT);
+        Pattern compiled = null;
+        String error = null;
+        if (compileRegex) {
+            try {
+                compiled = Pattern.compile(raw, REGEX_FLAGS);
+            } catch (PatternSyntaxException ex) {
+                error = ex.getDescription();
+            }
+        }
+        this.regex = compiled;
+        this.regexError = error;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public String getLower() {
+        return lower;
+    }
+
+    /**
+     * Compiled, case-insensitive pattern for regex entries; null for other entries and for
+     * malformed expressions, which are matched as plain "contains" text instead.
+     */
+    public Pattern getRegex() {
+        return regex;
+    }
+
+    /**
+     * Why the pattern of a regex entry failed to compile, or null.
+     */
+    public String getRegexError() {
+        return regexError;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
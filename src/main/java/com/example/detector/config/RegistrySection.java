@@ -0,0 +1,85 @@
+package com.example.detector.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled registry section: its entries in registry order and merged expressions over its
+ * regex entries, one per PURL ecosystem, so that a component's regex pass only runs the patterns
+ * of entries that can apply to it. Entry ids of a section form the contiguous range
+ * [{@link #getFirstId()}, {@link #getEndId()}).
+ */
+public final class RegistrySection {
+    static final RegistrySection EMPTY = new RegistrySection("", 0, List.of());
+
+    private final String name;
+    private final int firstId;
+    private final List<RegistryEntry> entries;
+    /** Over every regex entry, for components without a PURL. */
+    private final RegexIndex regexIndex;
+    /** Over the regex entries without ecosystems, for components of an ecosystem none names. */
+    private final RegexIndex universalRegexIndex;
+    private final Map<String, RegexIndex> regexIndexByEcosystem = new HashMap<>();
+
+    RegistrySection(String name, int firstId, List<RegistryEntry> entries) {
+        this.name = name;
+        this.firstId = firstId;
+        this.entries = Collections.unmodifiableList(entries);
+        List<RegistryEntry> regexEntries = new ArrayList<>();
+        for (RegistryEntry entry : entries) {
+            if (entry.getMatchMode() == MatchMode.REGEX) regexEntries.add(entry);
+        }
+        this.regexIndex = index(regexEntries, null);
+        this.universalRegexIndex = index(regexEntries, "");
+        for (RegistryEntry entry : regexEntries) {
+            for (String ecosystem : entry.getEcosystems()) {
+                regexIndexByEcosystem.computeIfAbsent(ecosystem, e -> index(regexEntries, e));
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<RegistryEntry> getEntries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int getFirstId() {
+        return firstId;
+    }
+
+    public int getEndId() {
+        return firstId + entries.size();
+    }
+
+    /**
+     * Merged expression over the regex entries that apply to components of an ecosystem.
+     *
+     * @param ecosystem lower-case PURL type, or null when the component has no PURL
+     */
+    public RegexIndex getRegexIndex(String ecosystem) {
+        if (ecosystem == null) return regexIndex;
+        return regexIndexByEcosystem.getOrDefault(ecosystem, universalRegexIndex);
+    }
+
+    /**
+     * @param ecosystem as for {@link RegistryEntry#appliesTo}; "" keeps only entries without
+     *                  ecosystems
+     */
+    private static RegexIndex index(List<RegistryEntry> regexEntries, String ecosystem) {
+        List<RegistryEntry> applicable = new ArrayList<>();
+        for (RegistryEntry entry : regexEntries) {
+            if (entry.appliesTo(ecosystem)) applicable.add(entry);
+        }
+        return applicable.isEmpty() ? RegexIndex.EMPTY : new RegexIndex(applicable);
+    }
+}
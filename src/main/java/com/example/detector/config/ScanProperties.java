@@ -0,0 +1,135 @@
+package com.example.detector.config;
+
+import com.example.detector.spi.FileContext;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tuning knobs for the file-based scan, bound from {@code detector.scan.*} properties.
+ * A default-constructed instance carries the built-in defaults, so the engine can be
+ * created outside of a Spring context (e.g. in tests).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "detector.scan")
+public class ScanProperties {
+
+    /**
+     * Number of worker threads used to walk the project tree and run plugins.
+     * Zero or negative means one per available processor.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Maximum number of files handed to the plugins per scan. Manifests and shallow files are
+     * admitted first; files no plugin is interested in do not count.
+     */
+    private int maxFiles = 20000;
+
+    /**
+     * Maximum total size of the files whose content the plugins read per scan. Files only
+     * inspected by name do not count.
+     */
+    private long maxBytes = 256L * 1024 * 1024;
+
+    /**
+     * Largest file whose content plugins may read. Larger files are still dispatched by name,
+     * but reading them fails, so no single file can cost more than this in memory and time.
+     */
+    private long maxFileSize = 8L * 1024 * 1024;
+
+    /**
+     * Files at least this large are memory-mapped when plugins scan them as bytes, rather than
+     * copied onto the heap.
+     */
+    private long mapThreshold = 1024 * 1024;
+
+    /**
+     * Wall-clock limit of the file-based scan; zero means none. Off by default, since what a
+     * time-limited scan finds depends on the speed of the machine.
+     */
+    private Duration maxDuration = Duration.ZERO;
+
+    /**
+     * Directory names that are never descended into: vendored dependencies, build output,
+     * virtual environments and VCS metadata.
+     */
+    private List<String> pruneDirectories = new ArrayList<>(List.of(
+            "node_modules", ".git", "target", "build", ".venv", "dist", ".terraform"));
+
+    /**
+     * Ignore files whose patterns exclude files and directories from the scan, e.g.
+     * {@code .gitignore}, which applies to its directory and below, or {@code .dockerignore},
+     * which often lists the Dockerfile itself and applies only in the project root. Empty by
+     * default, since ignored files (generated manifests, local tooling) can change what a scan
+     * finds.
+     */
+    private List<String> ignoreFiles = new ArrayList<>();
+
+    /**
+     * Distinct pieces of evidence listed per technology; further evidence is only counted. Paths
+     * in the listed evidence are relative to the project root.
+     */
+    private int evidenceSamples = 20;
+
+    /**
+     * List every piece of evidence, with absolute paths and duplicates, instead of samples.
+     */
+    private boolean fullEvidence = false;
+
+    /**
+     * Read SBOMs with a token stream that only keeps the fields detection needs, instead of
+     * building the complete CycloneDX object model. Keeps memory flat for very large SBOMs.
+     */
+    private boolean streamingSbom = true;
+
+    /**
+     * Keep a store per project root with the fingerprint and findings of every scanned file, and
+     * replay the findings of unchanged files on the next scan instead of inspecting them again.
+     */
+    private boolean incrementalCache = false;
+
+    /**
+     * Where the incremental stores are kept.
+     */
+    private Path cacheDir = Path.of(System.getProperty("user.home"), ".cache", "tech-detector");
+
+    /**
+     * Also store a SHA-256 of each file, so that a file whose modification time changed but whose
+     * content did not (a fresh checkout, a touched file) still replays its findings.
+     */
+    private boolean cacheContentHash = false;
+
+    /**
+     * Share the findings of identical manifests and SBOMs across all projects scanned in one run,
+     * keyed by content hash, so that vendored or copied files are parsed once.
+     */
+    private boolean contentCache = true;
+
+    /**
+     * Memory bound of the content cache; least recently used findings are evicted beyond it.
+     */
+    private long contentCacheMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * Write findings evicted from the content cache below {@link #cacheDir} instead of dropping
+     * them, so that they also serve later runs with the same registry.
+     */
+    private boolean contentCacheSpill = false;
+
+    public FileContext.Limits fileLimits() {
+        return new FileContext.Limits(maxFileSize, mapThreshold);
+    }
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.detector.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thin client forwarding a CLI invocation to a running {@link ScanDaemon}. It runs before the
+ * Spring context is created, so a forwarded scan costs little more than starting the JVM.
+ */
+public final class DaemonClient {
+
+    /** CLI flag asking to forward to the daemon when one is running. */
+    public static final String CLIENT_FLAG = "--client";
+
+    /** Prefix of the application properties that can be passed as arguments. */
+    private static final String PROPERTY_PREFIX = "--detector.";
+    private static final String STATS_FLAG = "--stats";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private DaemonClient() {
+    }
+
+    public static boolean requested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals(CLIENT_FLAG)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The first of {@code args} a daemon cannot honor, or null. Application properties such as
+     * {@code --detector.scan.full-evidence=true} were bound when the daemon started and cannot
+     * change per request. Scan statistics cover everything the process scanned, so a daemon's
+     * would mix in every earlier and concurrent request.
+     */
+    public static String unsupportedByDaemon(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(PROPERTY_PREFIX)) return arg;
+            if (arg.equals(STATS_FLAG) || arg.startsWith(STATS_FLAG + "=")) return arg;
+        }
+        return null;
+    }
+
+    /**
+     * Forward {@code args} to the daemon and relay its output.
+     *
+     * @return the daemon's exit code, or -1 if the caller should scan by itself: no daemon is
+     *         listening, the socket does not belong to the user, or the arguments need a scan
+     *         the daemon cannot run
+     */
+    public static int forward(String[] args, PrintStream out, PrintStream err) throws IOException {
+        String unsupported = unsupportedByDaemon(args);
+        if (unsupported != null) {
+            err.println("Note: the scan daemon cannot apply " + unsupported + ", scanning locally");
+            return -1;
+        }
+        Path socket = ScanDaemon.socketPath(args);
+        if (!Files.exists(socket)) return -1;
+        if (!ScanDaemon.ownedByCurrentUser(socket) || !ScanDaemon.ownedByCurrentUser(socket.toAbsolutePath().getParent())) {
+            err.println("Warning: " + socket + " does not belong to you, scanning locally");
+            return -1;
+        }
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            return -1;
+        }
+        try (channel) {
+            OutputStream request = Channels.newOutputStream(channel);
+            request.write(MAPPER.writeValueAsBytes(forwardedArgs(args)));
+            request.write('\n');
+            request.flush();
+
+            BufferedReader frames = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            for (String frame; (frame = frames.readLine()) != null; ) {
+                if (frame.isEmpty()) continue;
+                String body = frame.substring(1);
+                switch (frame.charAt(0)) {
+                    case ScanDaemon.OUT -> out.println(body);
+                    case ScanDaemon.ERR -> err.println(body);
+                    case ScanDaemon.EXIT -> {
+                        out.flush();
+                        return Integer.parseInt(body.trim());
+                    }
+                    default -> { }
+                }
+            }
+        }
+        err.println("Error: scan daemon closed the connection");
+        return 1;
+    }
+
+    /**
+     * The arguments as the daemon needs them: without the client flag, and with project paths
+     * made absolute, since the daemon does not share the client's working directory.
+     */
+    static List<String> forwardedArgs(String[] args) {
+        List<String> forwarded = new ArrayList<>(args.length);
+        for (String arg : args) {
+            if (arg.equals(CLIENT_FLAG)) continue;
+            if (arg.startsWith("--path=")) {
+                forwarded.add("--path=" + Path.of(arg.substring("--path=".length())).toAbsolutePath());
+            } else if (!arg.startsWith("-")) {
+                forwarded.add(Path.of(arg).toAbsolutePath().toString());
+            } else {
+                forwarded.add(arg);
+            }
+        }
+        return forwarded;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.detector.daemon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Splits what is written to it into lines and sends each as one frame: a channel byte, the line
+ * and a newline. Several of these (stdout and stderr of one request) share an underlying stream;
+ * frames are written whole, so they never interleave.
+ */
+final class FrameOutputStream extends OutputStream {
+
+    private final byte channel;
+    private final OutputStream target;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+    FrameOutputStream(byte channel, OutputStream target) {
+        this.channel = channel;
+        this.target = target;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        if (b == '\n') {
+            emit();
+        } else {
+            line.write(b);
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        int start = off;
+        for (int i = off; i < off + len; i++) {
+            if (b[i] == '\n') {
+                line.write(b, start, i - start);
+                emit();
+                start = i + 1;
+            }
+        }
+        line.write(b, start, off + len - start);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // Only whole lines are sent; a partial line waits for its newline or for close()
+        synchronized (target) {
+            target.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (line.size() > 0) emit();
+        flush();
+    }
+
+    private void emit() throws IOException {
+        synchronized (target) {
+            target.write(channel);
+            line.writeTo(target);
+            target.write('\n');
+        }
+        line.reset();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.detector.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves CLI invocations over a Unix domain socket from a process whose Spring context, registry
+ * and plugins are already loaded and JIT-compiled, so a {@link DaemonClient} only pays for its
+ * own (Spring-free) JVM start.
+ *
+ * Protocol, one request per connection: the client sends its arguments as a JSON array of
+ * strings on one line. The daemon answers with frames, one per line, whose first byte names the
+ * channel: {@link #OUT} and {@link #ERR} carry a line of the command's stdout or stderr,
+ * {@link #EXIT} the exit code. The connection is closed after the exit frame.
+ */
+@Slf4j
+public final class ScanDaemon {
+
+    /** CLI flag starting the daemon. */
+    public static final String DAEMON_FLAG = "--daemon";
+    /** CLI option naming the socket, for the daemon and the client alike. */
+    public static final String SOCKET_OPTION = "--socket=";
+
+    static final byte OUT = 'o';
+    static final byte ERR = 'e';
+    static final byte EXIT = 'x';
+
+    /**
+     * Runs one CLI invocation.
+     */
+    @FunctionalInterface
+    public interface CommandHandler {
+        int execute(String[] args, PrintStream out, PrintStream err) throws Exception;
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path socket;
+    private final int threads;
+    private final CommandHandler handler;
+
+    /**
+     * @param threads requests handled at the same time; each request scans its projects in
+     *                parallel on its own
+     */
+    public ScanDaemon(Path socket, int threads, CommandHandler handler) {
+        this.socket = socket;
+        this.threads = threads;
+        this.handler = handler;
+    }
+
+    /**
+     * The socket named by {@link #SOCKET_OPTION} in {@code args}, else one in a directory private
+     * to the user: below {@code $XDG_RUNTIME_DIR} when it is set, else in the temporary directory.
+     */
+    public static Path socketPath(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(SOCKET_OPTION)) return Path.of(arg.substring(SOCKET_OPTION.length()));
+        }
+        String runtimeDir = System.getenv("XDG_RUNTIME_DIR");
+        Path dir = runtimeDir != null && !runtimeDir.isBlank() && Files.isDirectory(Path.of(runtimeDir))
+            ? Path.of(runtimeDir, "tech-detector")
+            : Path.of(System.getProperty("java.io.tmpdir"), "tech-detector-" + System.getProperty("user.name"));
+        return dir.resolve("daemon.sock");
+    }
+
+    /**
+     * Whether a file, not following links, belongs to the user running this process. A socket
+     * (or its directory) owned by someone else could hand forwarded project paths to them.
+     */
+    static boolean ownedByCurrentUser(Path path) {
+        try {
+            UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+            return owner.equals(currentUser(path));
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static UserPrincipal currentUser(Path path) throws IOException {
+        return path.getFileSystem().getUserPrincipalLookupService()
+            .lookupPrincipalByName(System.getProperty("user.name"));
+    }
+
+    /**
+     * Accept requests until the process is stopped.
+     *
+     * @throws IllegalStateException if another daemon is already serving the socket, or the
+     *                               socket's directory is not private to the user
+     */
+    public void serve() throws IOException {
+        prepareDirectory();
+        removeStaleSocket();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, daemonThreads());
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            restrictToOwner();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::deleteSocket));
+            log.info("Scan daemon listening on {}", socket);
+            while (server.isOpen()) {
+                SocketChannel client = server.accept();
+                pool.execute(() -> handle(client));
+            }
+        } finally {
+            pool.shutdownNow();
+            deleteSocket();
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(client), StandardCharsets.UTF_8));
+            OutputStream frames = new BufferedOutputStream(Channels.newOutputStream(client));
+            String request = in.readLine();
+            int exitCode;
+            try (PrintStream out = new PrintStream(new FrameOutputStream(OUT, frames), true, StandardCharsets.UTF_8);
+                 PrintStream err = new PrintStream(new FrameOutputStream(ERR, frames), true, StandardCharsets.UTF_8)) {
+                try {
+                    String[] args = request == null ? new String[0] : MAPPER.readValue(request, String[].class);
+                    log.info("Daemon request with {} argument(s)", args.length);
+                    exitCode = handler.execute(args, out, err);
+                } catch (Exception e) {
+                    log.error("Daemon request failed", e);
+                    err.println("Error: " + e.getMessage());
+                    exitCode = 1;
+                }
+            }
+            frames.write(EXIT);
+            frames.write(Integer.toString(exitCode).getBytes(StandardCharsets.UTF_8));
+            frames.write('\n');
+            frames.flush();
+        } catch (IOException e) {
+            log.debug("Daemon connection failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Create the socket's directory accessible to the user only, or make sure an existing one
+     * is. Nobody else can then connect to, replace or pre-create the socket, not even in the
+     * moment between binding it and {@link #restrictToOwner() restricting} it.
+     */
+    private void prepareDirectory() throws IOException {
+        Path dir = socket.toAbsolutePath().getParent();
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(dir.getParent());
+            try {
+                Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+            } catch (UnsupportedOperationException e) {
+                Files.createDirectory(dir);
+            }
+        }
+        if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS) || !ownedByCurrentUser(dir)) {
+            throw new IllegalStateException("Socket directory " + dir + " must be a directory owned by "
+                + System.getProperty("user.name"));
+        }
+        PosixFileAttributeView view = Files.getFileAttributeView(dir, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (view != null) {
+            Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+            if (!OWNER_ONLY_DIRECTORY.containsAll(permissions)) {
+                throw new IllegalStateException("Socket directory " + dir + " must only be accessible to its owner (chmod 700)");
+            }
+        }
+    }
+
+    private void removeStaleSocket() throws IOException {
+        if (!Files.exists(socket)) return;
+        try (SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            throw new IllegalStateException("A scan daemon is already listening on " + socket);
+        } catch (IOException e) {
+            // Nobody is listening: left over from a daemon that did not shut down cleanly
+            Files.delete(socket);
+        }
+    }
+
+    private void restrictToOwner() {
+        try {
+            Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("Cannot restrict permissions of {}: {}", socket, e.getMessage());
+        }
+    }
+
+    private void deleteSocket() {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            log.debug("Cannot delete socket {}: {}", socket, e.getMessage());
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "scan-daemon-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -3,13 +3,12 @@ package com.example.detector.detectors.framework;
 import com.example.detector.config.RegistryLoader;
 import com.example.detector.model.DetectionResult;
 import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.maven.model.Dependency;
-import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.springframework.stereotype.Component;
 
-import java.io.FileReader;
 import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
@@ -17,6 +16,8 @@ import java.util.List;
 @Component
 public class MavenPomDetector implements DetectorPlugin {
 
+    private static final FileInterest INTEREST = FileInterest.builder().names("pom.xml").build();
+
     private final RegistryLoader registryLoader;
 
     public MavenPomDetector(RegistryLoader registryLoader) {
@@ -24,16 +25,24 @@ public class MavenPomDetector implements DetectorPlugin {
     }
 
     @Override
-    public void inspect(Path file, Path projectRoot, DetectionResult result) {
-        String name = file.getFileName().toString().toLowerCase();
+    public FileInterest interest() {
+        return INTEREST;
+    }
 
-        if (!name.equals("pom.xml")) {
-            return;
-        }
+    @Override
+    public boolean contentAddressable() {
+        return true;
+    }
 
-        try (FileReader fr = new FileReader(file.toFile())) {
-            Model model = new MavenXpp3Reader().read(fr);
-            List<Dependency> deps = model.getDependencies();
+    @Override
+    public void inspect(Path file, Path projectRoot, DetectionResult result) {
+        inspect(new FileContext(file, projectRoot), result);
+    }
+
+    @Override
+    public void inspect(FileContext context, DetectionResult result) {
+        try {
+            List<Dependency> deps = context.mavenModel().getDependencies();
             JsonNode registry = registryLoader.getRegistry();
 
             for (Dependency dep : deps) {
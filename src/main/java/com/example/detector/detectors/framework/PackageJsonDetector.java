@@ -1,148 +1,163 @@
 package com.example.detector.detectors.framework;
 
+import com.example.detector.config.CompiledRegistry;
+import com.example.detector.config.RegistryEntry;
+import com.example.detector.config.RegistryLoader;
 import com.example.detector.model.DetectionResult;
 import com.example.detector.spi.DetectorPlugin;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Detects npm frameworks and languages from the dependencies of a {@code package.json}. What to
+ * detect comes from the registry: the entries of {@code npmFrameworks} and {@code npmLanguages}
+ * list the npm packages that indicate them, in order of preference for the reported version.
+ *
+ * The file is streamed rather than read into a tree: only the keys and versions of
+ * {@code dependencies}, {@code devDependencies} and {@code peerDependencies} are looked at, each
+ * with one hash lookup, and everything else is skipped. Memory stays constant however large the
+ * file, so generated manifests beyond the size cap of {@link FileContext} are inspected too.
+ */
 @Component
 public class PackageJsonDetector implements DetectorPlugin {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final FileInterest INTEREST = FileInterest.builder().names("package.json").build();
 
-    @Override
-    public void inspect(Path file, Path projectRoot, DetectionResult result) {
-        String name = file.getFileName().toString().toLowerCase();
-        if (!name.equals("package.json")) return;
-
-        try {
-            File packageJsonFile = file.toFile();
-            JsonNode root = objectMapper.readTree(packageJsonFile);
-
-            // Check dependencies and devDependencies
-            JsonNode dependencies = root.get("dependencies");
-            JsonNode devDependencies = root.get("devDependencies");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-            // Detect Node.js runtime
-            result.addRuntime("Node.js", "package.json detected");
+    /** Dependency blocks, in order of preference for the reported version. */
+    private static final List<String> SCOPES = List.of("dependencies", "devDependencies", "peerDependencies");
 
-            // Detect React
-            if (hasDependency(dependencies, "react")) {
-                String version = getDependencyVersion(dependencies, "react");
-                result.addFramework("React", version);
-                result.languages.add("JavaScript");
-            }
+    /**
+     * An npm package indicating a registry entry.
+     *
+     * @param entry    the framework or language indicated
+     * @param language whether the entry is a language rather than a framework
+     * @param rank     position of the package among the entry's indicators
+     */
+    private record Indicator(RegistryEntry entry, boolean language, int rank) {
+    }
 
-            // Detect React Native
-            if (hasDependency(dependencies, "react-native")) {
-                String version = getDependencyVersion(dependencies, "react-native");
-                result.addFramework("React Native", version);
-            }
+    /** The version found for an entry, from the given {@link #SCOPES scope}. */
+    private record Hit(Indicator indicator, int scope, String version) {
+    }
 
-            // Detect Vue
-            if (hasDependency(dependencies, "vue")) {
-                String version = getDependencyVersion(dependencies, "vue");
-                result.addFramework("Vue.js", version);
-                result.languages.add("JavaScript");
-            }
+    private final Map<String, List<Indicator>> indicatorsByPackage;
 
-            // Detect Angular
-            if (hasDependency(dependencies, "@angular/core")) {
-                String version = getDependencyVersion(dependencies, "@angular/core");
-                result.addFramework("Angular", version);
-                result.languages.add("TypeScript");
-            }
+    public PackageJsonDetector(RegistryLoader registryLoader) {
+        this.indicatorsByPackage = index(registryLoader.getCompiledRegistry());
+    }
 
-            // Detect Next.js
-            if (hasDependency(dependencies, "next")) {
-                String version = getDependencyVersion(dependencies, "next");
-                result.addFramework("Next.js", version);
-            }
+    @Override
+    public FileInterest interest() {
+        return INTEREST;
+    }
 
-            // Detect Redux
-            if (hasDependency(dependencies, "redux") || hasDependency(dependencies, "@reduxjs/toolkit")) {
-                String version = getDependencyVersion(dependencies, "@reduxjs/toolkit");
-                if (version == null) {
-                    version = getDependencyVersion(dependencies, "redux");
-                }
-                result.addFramework("Redux", version);
-            }
+    @Override
+    public boolean contentAddressable() {
+        return true;
+    }
 
-            // Detect Express.js
-            if (hasDependency(dependencies, "express")) {
-                String version = getDependencyVersion(dependencies, "express");
-                result.addFramework("Express.js", version);
-            }
+    @Override
+    public void inspect(Path file, Path projectRoot, DetectionResult result) {
+        inspect(new FileContext(file, projectRoot), result);
+    }
 
-            // Detect NestJS
-            if (hasDependency(dependencies, "@nestjs/core")) {
-                String version = getDependencyVersion(dependencies, "@nestjs/core");
-                result.addFramework("NestJS", version);
-                result.languages.add("TypeScript");
-            }
+    @Override
+    public void inspect(FileContext context, DetectionResult result) {
+        Collection<Hit> hits;
+        try {
+            hits = scan(context);
+        } catch (Exception e) {
+            // Not valid JSON: nothing is reported, as for a file that cannot be read
+            return;
+        }
 
-            // Detect UI Libraries
-            if (hasDependency(dependencies, "antd")) {
-                String version = getDependencyVersion(dependencies, "antd");
-                result.addFramework("Ant Design", version);
-            }
+        // Detect Node.js runtime
+        result.addRuntime("Node.js", "package.json detected");
 
-            if (hasDependency(dependencies, "@mui/material")) {
-                String version = getDependencyVersion(dependencies, "@mui/material");
-                result.addFramework("Material-UI", version);
+        for (Hit hit : hits) {
+            if (hit.indicator().language()) {
+                result.languages.add(hit.indicator().entry().getKey());
+            } else {
+                result.addFramework(hit.indicator().entry().getKey(), hit.version());
             }
+        }
+    }
 
-            // Detect Tailwind CSS
-            if (hasDependency(dependencies, "tailwindcss") || hasDependency(devDependencies, "tailwindcss")) {
-                String version = getDependencyVersion(dependencies, "tailwindcss");
-                if (version == null) {
-                    version = getDependencyVersion(devDependencies, "tailwindcss");
+    /**
+     * Stream the file, keeping per indicated entry the most preferred hit: the entry's first
+     * indicator present, from the first scope it is found in.
+     */
+    private Collection<Hit> scan(FileContext context) throws IOException {
+        Map<RegistryEntry, Hit> best = new HashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(context.stream())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int scope = SCOPES.indexOf(parser.getCurrentName());
+                    if (parser.nextToken() == JsonToken.START_OBJECT && scope >= 0) {
+                        scanScope(parser, scope, best);
+                    } else {
+                        parser.skipChildren();
+                    }
                 }
-                result.addFramework("Tailwind CSS", version);
+            } else {
+                parser.skipChildren();
             }
-
-            // Detect Styled Components
-            if (hasDependency(dependencies, "styled-components")) {
-                String version = getDependencyVersion(dependencies, "styled-components");
-                result.addFramework("Styled Components", version);
-            }
-
-            // Detect TypeScript
-            if (hasDependency(dependencies, "typescript") || hasDependency(devDependencies, "typescript")) {
-                result.languages.add("TypeScript");
+            // Read to the end, so that a file that is not valid JSON reports nothing
+            while (parser.nextToken() != null) {
+                parser.skipChildren();
             }
+        }
+        return best.values();
+    }
 
-            // Detect GraphQL
-            if (hasDependency(dependencies, "graphql")) {
-                String version = getDependencyVersion(dependencies, "graphql");
-                result.addFramework("GraphQL", version);
+    private void scanScope(JsonParser parser, int scope, Map<RegistryEntry, Hit> best) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            List<Indicator> indicators = indicatorsByPackage.get(parser.getCurrentName());
+            JsonToken value = parser.nextToken();
+            if (indicators == null) {
+                parser.skipChildren();
+                continue;
             }
-
-            // Detect Apollo Client
-            if (hasDependency(dependencies, "@apollo/client")) {
-                String version = getDependencyVersion(dependencies, "@apollo/client");
-                result.addFramework("Apollo Client", version);
+            String version = value.isScalarValue() ? parser.getValueAsString("") : "";
+            parser.skipChildren();
+            for (Indicator indicator : indicators) {
+                Hit current = best.get(indicator.entry());
+                if (current == null || indicator.rank() < current.indicator().rank()
+                        || (indicator.rank() == current.indicator().rank() && scope < current.scope())) {
+                    best.put(indicator.entry(), new Hit(indicator, scope, version));
+                }
             }
-
-        } catch (Exception e) {
-            // ignore
         }
     }
 
-    private boolean hasDependency(JsonNode dependencies, String packageName) {
-        return dependencies != null && dependencies.has(packageName);
+    private static Map<String, List<Indicator>> index(CompiledRegistry registry) {
+        Map<String, List<Indicator>> index = new HashMap<>();
+        addToIndex(index, registry.section("npmFrameworks").getEntries(), false);
+        addToIndex(index, registry.section("npmLanguages").getEntries(), true);
+        return index;
     }
 
-    private String getDependencyVersion(JsonNode dependencies, String packageName) {
-        if (dependencies != null && dependencies.has(packageName)) {
-            return dependencies.get(packageName).asText();
+    private static void addToIndex(Map<String, List<Indicator>> index, List<RegistryEntry> entries, boolean language) {
+        for (RegistryEntry entry : entries) {
+            List<String> packages = entry.getIndicators();
+            for (int rank = 0; rank < packages.size(); rank++) {
+                index.computeIfAbsent(packages.get(rank), k -> new ArrayList<>(1))
+                        .add(new Indicator(entry, language, rank));
+            }
         }
-        return null;
     }
 }
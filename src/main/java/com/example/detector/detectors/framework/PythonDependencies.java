@@ -0,0 +1,250 @@
+package com.example.detector.detectors.framework;
+
+import com.example.detector.spi.FileContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The dependencies declared by a Python manifest, read in a single pass: {@code requirements.txt},
+ * a {@code Pipfile} ({@code [packages]} and {@code [dev-packages]}), or a {@code pyproject.toml}
+ * (PEP 621 {@code dependencies} and {@code optional-dependencies}, and Poetry dependency tables).
+ * Names are normalized as in PEP 503, so that looking up a package is a single hash lookup
+ * whatever spelling the manifest uses. Where a package is declared twice, the first declaration
+ * wins.
+ *
+ * The TOML forms are read line by line, which covers the layouts these files are written in
+ * (tables, {@code name = "spec"}, {@code name = { version = "spec" }}, string arrays spanning
+ * lines) without a full TOML parser.
+ */
+final class PythonDependencies {
+
+    /**
+     * One declared dependency.
+     *
+     * @param name        normalized package name
+     * @param specifier   version specifier as written, e.g. {@code >=2.0,<3} or {@code ^1.4}; empty if none
+     * @param declaration the declaration as it appears in the manifest, used as evidence
+     */
+    record Requirement(String name, String specifier, String declaration) {
+    }
+
+    /** The dependencies of a manifest by normalized name, in declaration order. */
+    static final FileContext.Parser<Map<String, Requirement>> PARSER = context -> switch (context.lowerName()) {
+        case "pipfile" -> parseToml(context.text(), PythonDependencies::pipfileTable);
+        case "pyproject.toml" -> parseToml(context.text(), PythonDependencies::pyprojectTable);
+        default -> parseRequirements(context.text());
+    };
+
+    private PythonDependencies() {
+    }
+
+    /**
+     * PEP 503 normalization: lower case, with every run of {@code -}, {@code _} and {@code .}
+     * replaced by a single {@code -}.
+     */
+    static String normalize(String name) {
+        StringBuilder out = new StringBuilder(name.length());
+        boolean separator = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '-' || c == '_' || c == '.') {
+                separator = true;
+            } else {
+                if (separator && out.length() > 0) out.append('-');
+                separator = false;
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    static Map<String, Requirement> parseRequirements(String content) {
+        Map<String, Requirement> out = new LinkedHashMap<>();
+        StringBuilder continued = null;
+        for (String line : content.lines().toList()) {
+            String stripped = stripComment(line).strip();
+            if (stripped.endsWith("\\")) {
+                // Continuation: the requirement goes on on the next line
+                if (continued == null) continued = new StringBuilder();
+                continued.append(stripped, 0, stripped.length() - 1).append(' ');
+                continue;
+            }
+            if (continued != null) {
+                stripped = continued.append(stripped).toString().strip();
+                continued = null;
+            }
+            // Options (-r, -e, --index-url, ...) and bare URLs or paths name no package
+            if (stripped.isEmpty() || stripped.startsWith("-")) continue;
+            addRequirement(out, stripped, stripped);
+        }
+        return out;
+    }
+
+    /** Which tables of a TOML manifest declare dependencies, and in which form. */
+    private enum TableKind {
+        /** Not a dependency table. */
+        NONE,
+        /** {@code name = "spec"} or {@code name = { version = "spec", ... }} per line. */
+        KEYED,
+        /** The PEP 621 {@code [project]} table, whose {@code dependencies} key is an array. */
+        PROJECT,
+        /** {@code [project.optional-dependencies]}: every key is an array of requirements. */
+        ARRAYS
+    }
+
+    @FunctionalInterface
+    private interface TableClassifier {
+        TableKind classify(String table);
+    }
+
+    private static TableKind pipfileTable(String table) {
+        return table.equals("packages") || table.equals("dev-packages") ? TableKind.KEYED : TableKind.NONE;
+    }
+
+    private static TableKind pyprojectTable(String table) {
+        if (table.equals("project")) return TableKind.PROJECT;
+        if (table.equals("project.optional-dependencies")) return TableKind.ARRAYS;
+        if (table.equals("tool.poetry.dependencies") || table.equals("tool.poetry.dev-dependencies")) {
+            return TableKind.KEYED;
+        }
+        if (table.startsWith("tool.poetry.group.") && table.endsWith(".dependencies")) return TableKind.KEYED;
+        return TableKind.NONE;
+    }
+
+    private static Map<String, Requirement> parseToml(String content, TableClassifier classifier) {
+        Map<String, Requirement> out = new LinkedHashMap<>();
+        TableKind table = TableKind.NONE;
+        boolean inArray = false;
+        for (String line : content.lines().toList()) {
+            String stripped = stripComment(line).strip();
+            if (stripped.isEmpty()) continue;
+            if (inArray) {
+                inArray = addArrayItems(out, stripped);
+                continue;
+            }
+            if (stripped.startsWith("[")) {
+                int end = stripped.indexOf(']');
+                table = end > 0 && !stripped.startsWith("[[")
+                        ? classifier.classify(unquote(stripped.substring(1, end).strip()))
+                        : TableKind.NONE;
+                continue;
+            }
+            if (table == TableKind.NONE) continue;
+            int eq = stripped.indexOf('=');
+            if (eq <= 0) continue;
+            String key = unquote(stripped.substring(0, eq).strip());
+            String value = stripped.substring(eq + 1).strip();
+            switch (table) {
+                case KEYED -> {
+                    // Poetry's python key constrains the interpreter, not a package
+                    if (!key.equalsIgnoreCase("python")) {
+                        out.putIfAbsent(normalize(key), new Requirement(normalize(key), keyedSpecifier(value), stripped));
+                    }
+                }
+                case PROJECT -> {
+                    if (key.equals("dependencies") && value.startsWith("[")) {
+                        inArray = addArrayItems(out, value.substring(1));
+                    }
+                }
+                case ARRAYS -> {
+                    if (value.startsWith("[")) inArray = addArrayItems(out, value.substring(1));
+                }
+                default -> {
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Add the quoted requirements of (part of) a string array.
+     *
+     * @return whether the array goes on on the next line
+     */
+    private static boolean addArrayItems(Map<String, Requirement> out, String items) {
+        int i = 0;
+        while (i < items.length()) {
+            char c = items.charAt(i);
+            if (c == ']') return false;
+            if (c == '"' || c == '\'') {
+                int end = items.indexOf(c, i + 1);
+                if (end < 0) return false;
+                String requirement = items.substring(i + 1, end).strip();
+                if (!requirement.isEmpty()) addRequirement(out, requirement, requirement);
+                i = end + 1;
+            } else {
+                i++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a PEP 508 requirement such as {@code requests[socks]>=2.31; python_version >= "3.8"}.
+     */
+    private static void addRequirement(Map<String, Requirement> out, String requirement, String declaration) {
+        int end = 0;
+        while (end < requirement.length() && isNameChar(requirement.charAt(end))) end++;
+        if (end == 0) return;
+        String name = normalize(requirement.substring(0, end));
+        String rest = requirement.substring(end).strip();
+        if (rest.startsWith("[")) {
+            int extras = rest.indexOf(']');
+            rest = extras < 0 ? "" : rest.substring(extras + 1).strip();
+        }
+        int marker = rest.indexOf(';');
+        if (marker >= 0) rest = rest.substring(0, marker).strip();
+        // A lone word such as a URL scheme or a local path is not a requirement
+        if (!rest.isEmpty() && !isSpecifierStart(rest.charAt(0))) return;
+        out.putIfAbsent(name, new Requirement(name, rest, declaration));
+    }
+
+    /** The version of {@code "spec"} or {@code { version = "spec", ... }}; empty for other forms. */
+    private static String keyedSpecifier(String value) {
+        if (value.startsWith("{")) {
+            int version = value.indexOf("version");
+            if (version < 0) return "";
+            int eq = value.indexOf('=', version);
+            return eq < 0 ? "" : firstQuoted(value.substring(eq + 1));
+        }
+        String specifier = firstQuoted(value);
+        return specifier.equals("*") ? "" : specifier;
+    }
+
+    private static String firstQuoted(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\'') {
+                int end = value.indexOf(c, i + 1);
+                return end < 0 ? "" : value.substring(i + 1, end).strip();
+            }
+        }
+        return "";
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.';
+    }
+
+    private static boolean isSpecifierStart(char c) {
+        return c == '=' || c == '<' || c == '>' || c == '~' || c == '!' || c == '@' || c == '(' || c == ',';
+    }
+
+    /** A {@code #} starts a comment at the start of a line or after whitespace (pip and TOML alike). */
+    private static String stripComment(String line) {
+        int hash = line.indexOf('#');
+        while (hash > 0 && !Character.isWhitespace(line.charAt(hash - 1))) {
+            hash = line.indexOf('#', hash + 1);
+        }
+        return hash < 0 ? line : line.substring(0, hash);
+    }
+
+    private static String unquote(String key) {
+        if (key.length() >= 2 && (key.charAt(0) == '"' || key.charAt(0) == '\'')
+                && key.charAt(key.length() - 1) == key.charAt(0)) {
+            return key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+}
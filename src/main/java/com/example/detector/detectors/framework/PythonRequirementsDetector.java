@@ -1,20 +1,25 @@
 package com.example.detector.detectors.framework;
 
+import com.example.detector.config.CompiledRegistry;
+import com.example.detector.config.RegistryEntry;
 import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.RegistrySection;
 import com.example.detector.model.DetectionResult;
 import com.example.detector.spi.DetectorPlugin;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
 
 @Component
 public class PythonRequirementsDetector implements DetectorPlugin {
 
+    private static final FileInterest INTEREST = FileInterest.builder()
+            .names("requirements.txt", "pipfile", "pyproject.toml")
+            .build();
+
     private final RegistryLoader registryLoader;
 
     public PythonRequirementsDetector(RegistryLoader registryLoader) {
@@ -22,102 +27,68 @@ public class PythonRequirementsDetector implements DetectorPlugin {
     }
 
     @Override
-    public void inspect(Path file, Path projectRoot, DetectionResult result) {
-        String name = file.getFileName().toString().toLowerCase();
+    public FileInterest interest() {
+        return INTEREST;
+    }
 
-        // Only process requirements.txt, Pipfile, or pyproject.toml
-        if (!name.equals("requirements.txt") && !name.equals("pipfile") && !name.equals("pyproject.toml")) {
-            return;
-        }
+    @Override
+    public boolean contentAddressable() {
+        return true;
+    }
 
+    @Override
+    public void inspect(Path file, Path projectRoot, DetectionResult result) {
+        inspect(new FileContext(file, projectRoot), result);
+    }
+
+    @Override
+    public void inspect(FileContext context, DetectionResult result) {
         try {
-            String content = Files.readString(file, StandardCharsets.UTF_8);
-            JsonNode registry = registryLoader.getRegistry();
+            // Parsed once per file, whatever the number of registry indicators
+            Map<String, PythonDependencies.Requirement> dependencies = context.parsed(PythonDependencies.PARSER);
+            if (dependencies.isEmpty()) return;
+            CompiledRegistry registry = registryLoader.getCompiledRegistry();
 
             // Detect frameworks
-            detectFromRegistry(registry, "frameworks", content, file, result::addFramework);
+            detectFromRegistry(registry.section("frameworks"), dependencies, result::addFramework);
 
             // Detect cloud SDKs
-            detectFromRegistry(registry, "cloud_sdks", content, file, result::addCloudSdk);
+            detectFromRegistry(registry.section("cloud_sdks"), dependencies, result::addCloudSdk);
 
             // Detect databases
-            detectFromRegistry(registry, "databases", content, file, result::addDatabase);
+            detectFromRegistry(registry.section("databases"), dependencies, result::addDatabase);
 
             // Detect AI/ML libraries
-            if (registry.has("ai_ml")) {
-                detectFromRegistry(registry, "ai_ml", content, file, result::addFramework);
-            }
+            detectFromRegistry(registry.section("ai_ml"), dependencies, result::addFramework);
 
             // Detect vector databases
-            if (registry.has("vector_databases")) {
-                detectFromRegistry(registry, "vector_databases", content, file, result::addDatabase);
-            }
+            detectFromRegistry(registry.section("vector_databases"), dependencies, result::addDatabase);
 
             // Detect testing frameworks
-            if (registry.has("testing")) {
-                detectFromRegistry(registry, "testing", content, file, result::addFramework);
-            }
+            detectFromRegistry(registry.section("testing"), dependencies, result::addFramework);
 
             // Detect ORMs
-            if (registry.has("orm")) {
-                detectFromRegistry(registry, "orm", content, file, result::addFramework);
-            }
+            detectFromRegistry(registry.section("orm"), dependencies, result::addFramework);
 
             // Detect message queues
-            if (registry.has("message_queue")) {
-                detectFromRegistry(registry, "message_queue", content, file, result::addInfrastructure);
-            }
+            detectFromRegistry(registry.section("message_queue"), dependencies, result::addInfrastructure);
 
         } catch (Exception ex) {
             // ignore
         }
     }
 
-    private void detectFromRegistry(JsonNode registry, String category, String content, Path file, ResultAdder adder) {
-        if (!registry.has(category)) return;
-
-        JsonNode categoryNode = registry.get(category);
-        Iterator<String> fieldNames = categoryNode.fieldNames();
-
-        while (fieldNames.hasNext()) {
-            String tech = fieldNames.next();
-            JsonNode techNode = categoryNode.get(tech);
-
-            if (techNode.has("indicators")) {
-                JsonNode indicators = techNode.get("indicators");
-                for (JsonNode indicator : indicators) {
-                    String indicatorStr = indicator.asText().toLowerCase();
-                    String version = extractVersion(content, indicatorStr);
-                    if (version != null) {
-                        adder.add(formatTechName(tech), version);
-                        break; // Only add once per technology
-                    }
-                }
-            }
-        }
-    }
-
-    private String extractVersion(String content, String packageName) {
-        // Split content into lines
-        String[] lines = content.split("\\r?\\n");
-
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lowerLine = trimmed.toLowerCase();
-
-            // Skip comments
-            if (lowerLine.startsWith("#")) continue;
-
-            // Check if line contains the package
-            if (lowerLine.startsWith(packageName)) {
-                // Extract version using regex
-                // Matches: package==1.0.0, package>=1.0.0, package~=1.0.0, etc.
-                if (trimmed.matches("(?i)" + packageName + "[>=<~!]*.*")) {
-                    return trimmed; // Return the full line with version
+    private void detectFromRegistry(RegistrySection section, Map<String, PythonDependencies.Requirement> dependencies,
+                                    ResultAdder adder) {
+        for (RegistryEntry entry : section.getEntries()) {
+            for (String indicator : entry.getIndicators()) {
+                PythonDependencies.Requirement requirement = dependencies.get(PythonDependencies.normalize(indicator));
+                if (requirement != null) {
+                    adder.add(formatTechName(entry.getKey()), requirement.declaration());
+                    break; // Only add once per technology
                 }
             }
         }
-        return null;
     }
 
     private String formatTechName(String tech) {
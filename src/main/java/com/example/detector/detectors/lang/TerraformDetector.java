@@ -2,18 +2,30 @@ package com.example.detector.detectors.lang;
 
 import com.example.detector.model.DetectionResult;
 import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileInterest;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
 
 @Component
 public class TerraformDetector implements DetectorPlugin {
+    private static final FileInterest INTEREST = FileInterest.builder()
+            .extensions(".tf", ".tfvars")
+            .build();
+
+    @Override
+    public FileInterest interest() {
+        return INTEREST;
+    }
+
+    @Override
+    public boolean readsContent() {
+        return false;
+    }
+
     @Override
     public void inspect(Path file, Path projectRoot, DetectionResult result) {
-        String name = file.getFileName().toString().toLowerCase();
-        if (name.endsWith(".tf") || name.endsWith(".tfvars")) {
-            result.languages.add("Terraform");
-            result.addInfrastructure("Terraform", file.toString());
-        }
+        result.languages.add("Terraform");
+        result.addInfrastructure("Terraform", file.toString());
     }
 }
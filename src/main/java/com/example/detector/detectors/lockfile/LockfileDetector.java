@@ -0,0 +1,91 @@
+package com.example.detector.detectors.lockfile;
+
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomVisitor;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Detects technologies from the exact versions pinned in lockfiles (npm, yarn, pnpm, Poetry,
+ * Pipenv, Go, Cargo and Gradle). Every resolved package is turned into a PURL and classified by
+ * the {@link SbomProcessor} as if it were an SBOM component, so a project with a lockfile but no
+ * SBOM gets the same languages, frameworks and versions an SBOM would have given.
+ *
+ * Lockfiles are streamed, so they are read whatever their size; a package resolved at several
+ * places of the dependency tree is classified once per file.
+ */
+@Slf4j
+@Component
+public class LockfileDetector implements DetectorPlugin {
+
+    private static final FileInterest INTEREST = FileInterest.builder()
+            .names(Lockfiles.READERS.keySet().toArray(String[]::new))
+            .build();
+
+    private final SbomProcessor sbomProcessor;
+
+    /**
+     * The processor is injected lazily, like in the engine: it is only created once a lockfile
+     * is actually found.
+     */
+    public LockfileDetector(@Lazy SbomProcessor sbomProcessor) {
+        this.sbomProcessor = sbomProcessor;
+    }
+
+    @Override
+    public FileInterest interest() {
+        return INTEREST;
+    }
+
+    @Override
+    public boolean contentAddressable() {
+        return true;
+    }
+
+    @Override
+    public void inspect(Path file, Path projectRoot, DetectionResult result) {
+        inspect(new FileContext(file, projectRoot), result);
+    }
+
+    @Override
+    public void inspect(FileContext context, DetectionResult result) {
+        Lockfiles.Reader reader = Lockfiles.READERS.get(context.lowerName());
+        if (reader == null) return;
+        SbomVisitor visitor = sbomProcessor.visitor(result);
+        Set<String> seen = new HashSet<>();
+        try (InputStream in = context.stream()) {
+            reader.read(in, (type, namespace, name, version) -> {
+                String purl = purl(type, namespace, name, version);
+                if (seen.add(purl)) {
+                    // Go modules are known by their full path, as in SBOMs
+                    String component = type.equals("golang") && namespace != null ? namespace + "/" + name : name;
+                    visitor.component(component, version, purl, "library");
+                }
+            });
+        } catch (Exception e) {
+            // The packages read up to the error have been recorded already
+            log.debug("Cannot read lockfile {}: {}", context.file(), e.getMessage());
+        }
+    }
+
+    static String purl(String type, String namespace, String name, String version) {
+        StringBuilder purl = new StringBuilder("pkg:").append(type).append('/');
+        if (namespace != null && !namespace.isEmpty()) {
+            purl.append(namespace.replace("@", "%40")).append('/');
+        }
+        // PyPI names are case-insensitive, with '_' and '-' equivalent
+        purl.append(type.equals("pypi") ? name.toLowerCase(Locale.ROOT).replace('_', '-') : name);
+        return purl.append('@').append(version).toString();
+    }
+}
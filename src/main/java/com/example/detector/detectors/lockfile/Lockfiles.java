@@ -0,0 +1,371 @@
+package com.example.detector.detectors.lockfile;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Readers for the lockfiles of the common package managers. Each reads its file as a stream,
+ * token by token or line by line, and reports every resolved package as it comes by, so that
+ * memory does not grow with the size of the lockfile (go.sum, which needs a version per module,
+ * excepted). The line-based formats (yarn, pnpm, TOML)
+ * are read for the layouts their tools write rather than with a full YAML or TOML parser.
+ */
+final class Lockfiles {
+
+    /**
+     * Receives the resolved packages of a lockfile, possibly the same one more than once.
+     */
+    @FunctionalInterface
+    interface PackageSink {
+        /**
+         * @param type      PURL type, e.g. {@code npm} or {@code pypi}
+         * @param namespace PURL namespace (npm scope, Maven group, Go module path prefix), or null
+         * @param name      package name
+         * @param version   resolved version
+         */
+        void locked(String type, String namespace, String name, String version);
+    }
+
+    @FunctionalInterface
+    interface Reader {
+        void read(InputStream in, PackageSink sink) throws IOException;
+    }
+
+    /** Readers by lower-cased file name. */
+    static final Map<String, Reader> READERS = Map.of(
+            "package-lock.json", Lockfiles::readPackageLock,
+            "yarn.lock", Lockfiles::readYarnLock,
+            "pnpm-lock.yaml", Lockfiles::readPnpmLock,
+            "poetry.lock", (in, sink) -> readTomlPackages(in, "pypi", sink),
+            "pipfile.lock", Lockfiles::readPipfileLock,
+            "go.sum", Lockfiles::readGoSum,
+            "cargo.lock", (in, sink) -> readTomlPackages(in, "cargo", sink),
+            "gradle.lockfile", Lockfiles::readGradleLockfile);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private Lockfiles() {
+    }
+
+    /**
+     * npm's {@code package-lock.json}: the {@code packages} map of lockfile versions 2 and 3,
+     * keyed by install path, and the nested {@code dependencies} of version 1.
+     */
+    static void readPackageLock(InputStream in, PackageSink sink) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT && field.equals("packages")) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String path = parser.getCurrentName();
+                        String version = versionOf(parser);
+                        int nodeModules = path.lastIndexOf("node_modules/");
+                        if (nodeModules >= 0 && version != null) {
+                            npm(path.substring(nodeModules + "node_modules/".length()), version, sink);
+                        }
+                    }
+                } else if (value == JsonToken.START_OBJECT && field.equals("dependencies")) {
+                    readNestedDependencies(parser, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /** Version 1 {@code dependencies}: name to an object with a version and further dependencies. */
+    private static void readNestedDependencies(JsonParser parser, PackageSink sink) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String version = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("version") && value == JsonToken.VALUE_STRING) {
+                    version = parser.getText();
+                } else if (field.equals("dependencies") && value == JsonToken.START_OBJECT) {
+                    readNestedDependencies(parser, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (version != null) npm(name, version, sink);
+        }
+    }
+
+    /** The {@code version} string of the object the parser is at; the object is consumed. */
+    private static String versionOf(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String version = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.VALUE_STRING && field.equals("version")) {
+                version = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return version;
+    }
+
+    /**
+     * {@code yarn.lock}, classic and Berry alike: an unindented line lists the specifiers an entry
+     * resolves (e.g. {@code "@babel/core@^7.0.0", "@babel/core@^7.1.0":}), and an indented
+     * {@code version} line gives the version they resolved to.
+     */
+    static void readYarnLock(InputStream in, PackageSink sink) throws IOException {
+        try (BufferedReader reader = reader(in)) {
+            String name = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (!Character.isWhitespace(line.charAt(0))) {
+                    name = line.endsWith(":") ? yarnEntryName(line) : null;
+                } else if (name != null) {
+                    String trimmed = line.strip();
+                    if (trimmed.startsWith("version ") || trimmed.startsWith("version:")) {
+                        npm(name, unquote(trimmed.substring("version".length() + 1).strip()), sink);
+                        name = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /** The package name of a yarn entry header, or null for metadata and workspace entries. */
+    private static String yarnEntryName(String header) {
+        // Classic quotes every specifier, Berry the whole list
+        int comma = header.indexOf(',');
+        String spec = header.substring(0, comma >= 0 ? comma : header.length() - 1).strip();
+        if (spec.startsWith("\"")) spec = spec.substring(1);
+        if (spec.endsWith("\"")) spec = spec.substring(0, spec.length() - 1);
+        if (spec.contains("@workspace:") || spec.contains("@link:") || spec.contains("@portal:")) return null;
+        int at = spec.indexOf('@', 1);
+        return at > 0 ? spec.substring(0, at) : null;
+    }
+
+    /**
+     * {@code pnpm-lock.yaml}: the keys of the {@code packages} map, which are {@code /name/version}
+     * up to lockfile version 5, {@code /name@version} in version 6 and {@code name@version} from
+     * version 9, optionally followed by a peer dependency suffix.
+     */
+    static void readPnpmLock(InputStream in, PackageSink sink) throws IOException {
+        try (BufferedReader reader = reader(in)) {
+            boolean inPackages = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (!Character.isWhitespace(line.charAt(0))) {
+                    inPackages = line.strip().equals("packages:");
+                    continue;
+                }
+                // Package keys are indented by exactly two spaces
+                if (!inPackages || !line.startsWith("  ") || Character.isWhitespace(line.charAt(2))) continue;
+                String key = line.strip();
+                if (!key.endsWith(":")) continue;
+                key = unquote(key.substring(0, key.length() - 1));
+                if (key.startsWith("/")) key = key.substring(1);
+                int peers = key.indexOf('(');
+                if (peers > 0) key = key.substring(0, peers);
+                int nameStart = key.startsWith("@") ? key.indexOf('/') + 1 : 0;
+                if (key.startsWith("@") && nameStart == 0) continue;
+                int at = key.indexOf('@', Math.max(nameStart, 1));
+                int slash = key.indexOf('/', nameStart);
+                if (at > 0 && (slash < 0 || at < slash)) {
+                    npm(key.substring(0, at), key.substring(at + 1), sink);
+                } else if (slash > 0) {
+                    // Version 5 and earlier: name/version, optionally with a _peer suffix
+                    String version = key.substring(slash + 1);
+                    int suffix = version.indexOf('_');
+                    npm(key.substring(0, slash), suffix > 0 ? version.substring(0, suffix) : version, sink);
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@code [[package]]} tables of {@code poetry.lock} and {@code Cargo.lock}, each with a
+     * {@code name} and a {@code version} line.
+     */
+    static void readTomlPackages(InputStream in, String type, PackageSink sink) throws IOException {
+        try (BufferedReader reader = reader(in)) {
+            boolean inPackage = false;
+            String name = null;
+            String version = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.strip();
+                if (trimmed.startsWith("[")) {
+                    if (name != null && version != null) sink.locked(type, null, name, version);
+                    inPackage = trimmed.equals("[[package]]");
+                    name = null;
+                    version = null;
+                } else if (inPackage && trimmed.startsWith("name") && name == null) {
+                    name = tomlString(trimmed, "name");
+                } else if (inPackage && trimmed.startsWith("version") && version == null) {
+                    version = tomlString(trimmed, "version");
+                }
+            }
+            if (name != null && version != null) sink.locked(type, null, name, version);
+        }
+    }
+
+    /** {@code Pipfile.lock}: the {@code default} and {@code develop} maps, versions as {@code ==x}. */
+    static void readPipfileLock(InputStream in, PackageSink sink) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT
+                        && (field.equals("default") || field.equals("develop"))) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = parser.getCurrentName();
+                        String version = versionOf(parser);
+                        if (version != null) {
+                            sink.locked("pypi", null, name, version.startsWith("==") ? version.substring(2) : version);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code go.sum}: {@code module version hash} lines. Modules whose only line is for their
+     * {@code go.mod} were needed to resolve the build graph, not built, and are left out.
+     *
+     * go.sum is a checksum database rather than a resolution: it keeps the hashes of versions
+     * minimal version selection no longer picks. Only the highest version of each module is
+     * reported, which is the selected one; this needs one entry per module in memory.
+     */
+    static void readGoSum(InputStream in, PackageSink sink) throws IOException {
+        Map<String, String> selected = new LinkedHashMap<>();
+        try (BufferedReader reader = reader(in)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.strip().split("\\s+");
+                if (fields.length < 3 || fields[1].endsWith("/go.mod")) continue;
+                selected.merge(fields[0], fields[1], (a, b) -> compareGoVersions(a, b) >= 0 ? a : b);
+            }
+        }
+        selected.forEach((module, version) -> {
+            int slash = module.lastIndexOf('/');
+            sink.locked("golang", slash > 0 ? module.substring(0, slash) : null, module.substring(slash + 1), version);
+        });
+    }
+
+    /**
+     * Semantic version order of Go module versions ({@code v1.2.3}, {@code v1.2.3-pre},
+     * pseudo-versions such as {@code v0.0.0-20240101120000-abcdef123456}); build metadata
+     * such as {@code +incompatible} is ignored.
+     */
+    static int compareGoVersions(String a, String b) {
+        String[] x = splitSemver(a);
+        String[] y = splitSemver(b);
+        int c = compareDotted(x[0], y[0]);
+        if (c != 0) return c;
+        // A release sorts after its pre-releases
+        if (x[1] == null || y[1] == null) return x[1] == null ? (y[1] == null ? 0 : 1) : -1;
+        return compareDotted(x[1], y[1]);
+    }
+
+    /** The core and pre-release (or null) of a version, without the {@code v} and build metadata. */
+    private static String[] splitSemver(String version) {
+        String v = version.startsWith("v") ? version.substring(1) : version;
+        int plus = v.indexOf('+');
+        if (plus >= 0) v = v.substring(0, plus);
+        int dash = v.indexOf('-');
+        return dash >= 0 ? new String[] {v.substring(0, dash), v.substring(dash + 1)} : new String[] {v, null};
+    }
+
+    /** Dot-separated identifiers, numeric ones compared as numbers and before alphanumeric ones. */
+    private static int compareDotted(String a, String b) {
+        String[] x = a.split("\\.");
+        String[] y = b.split("\\.");
+        for (int i = 0; i < Math.min(x.length, y.length); i++) {
+            boolean xNumeric = isNumeric(x[i]);
+            boolean yNumeric = isNumeric(y[i]);
+            int c;
+            if (xNumeric && yNumeric) {
+                c = x[i].length() != y[i].length() ? Integer.compare(x[i].length(), y[i].length()) : x[i].compareTo(y[i]);
+            } else if (xNumeric != yNumeric) {
+                c = xNumeric ? -1 : 1;
+            } else {
+                c = x[i].compareTo(y[i]);
+            }
+            if (c != 0) return c;
+        }
+        return Integer.compare(x.length, y.length);
+    }
+
+    private static boolean isNumeric(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+
+    /** {@code gradle.lockfile}: {@code group:artifact:version=configurations} lines. */
+    static void readGradleLockfile(InputStream in, PackageSink sink) throws IOException {
+        try (BufferedReader reader = reader(in)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("empty=")) continue;
+                int eq = line.indexOf('=');
+                String[] coordinates = (eq >= 0 ? line.substring(0, eq) : line).strip().split(":");
+                if (coordinates.length == 3) sink.locked("maven", coordinates[0], coordinates[1], coordinates[2]);
+            }
+        }
+    }
+
+    /** Report an npm package, splitting the scope of a scoped name into the namespace. */
+    private static void npm(String name, String version, PackageSink sink) {
+        if (name.isEmpty() || version.isEmpty()) return;
+        int slash = name.startsWith("@") ? name.indexOf('/') : -1;
+        if (slash > 0) {
+            sink.locked("npm", name.substring(0, slash), name.substring(slash + 1), version);
+        } else {
+            sink.locked("npm", null, name, version);
+        }
+    }
+
+    /** The quoted value of a {@code key = "value"} line, or null if the line sets another key. */
+    private static String tomlString(String line, String key) {
+        String rest = line.substring(key.length()).strip();
+        if (!rest.startsWith("=")) return null;
+        return unquote(rest.substring(1).strip());
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '\'')
+                && value.charAt(value.length() - 1) == value.charAt(0)) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}
@@ -2,11 +2,13 @@ package com.example.detector.detectors.runtime;
 
 import com.example.detector.model.DetectionResult;
 import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
+import com.example.detector.spi.PluginCategory;
+import com.example.detector.spi.UnreadableFileException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,18 +17,34 @@ import java.util.regex.Pattern;
 @Component
 public class DockerfileRuntimeDetector implements DetectorPlugin {
     private static final Pattern FROM = Pattern.compile("^FROM\\s+([^\\s]+)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final FileInterest INTEREST = FileInterest.builder().prefixes("dockerfile").build();
+
+    @Override
+    public FileInterest interest() {
+        return INTEREST;
+    }
+
+    @Override
+    public boolean contentAddressable() {
+        return true;
+    }
+
+    @Override
+    public PluginCategory category() {
+        return PluginCategory.INFRASTRUCTURE;
+    }
 
     @Override
     public void inspect(Path file, Path projectRoot, DetectionResult result) {
-        String name = file.getFileName().toString().toLowerCase();
-        if (!name.startsWith("dockerfile")) {
-            log.trace("Skipping file (not a Dockerfile): {}", file.getFileName());
-            return;
-        }
-        
+        inspect(new FileContext(file, projectRoot), result);
+    }
+
+    @Override
+    public void inspect(FileContext context, DetectionResult result) {
+        Path file = context.file();
         log.info("DockerfileRuntimeDetector: Processing Dockerfile: {}", file);
         try {
-            String txt = Files.readString(file, StandardCharsets.UTF_8);
+            CharSequence txt = context.chars();
             Matcher m = FROM.matcher(txt);
             if (m.find()) {
                 String base = m.group(1);
@@ -47,6 +65,8 @@ public class DockerfileRuntimeDetector implements DetectorPlugin {
             } else {
                 log.debug("DockerfileRuntimeDetector: No FROM instruction found in: {}", file);
             }
+        } catch (UnreadableFileException e) {
+            log.debug("DockerfileRuntimeDetector: Skipping {}", e.getMessage());
         } catch (Exception e) {
             log.warn("DockerfileRuntimeDetector: Error processing Dockerfile {}: {}", file, e.getMessage(), e);
         }
@@ -2,10 +2,10 @@ package com.example.detector.detectors.runtime;
 
 import com.example.detector.model.DetectionResult;
 import com.example.detector.spi.DetectorPlugin;
-import org.apache.commons.io.FileUtils;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,12 +15,33 @@ public class JdkVersionDetector implements DetectorPlugin {
     private static final Pattern JAVA_VER_POM = Pattern.compile("<java.version>([^<]+)</java.version>|<maven\\.compiler\\.target>([^<]+)</maven\\.compiler\\.target>", Pattern.CASE_INSENSITIVE);
     private static final Pattern JAVA_DOCKER = Pattern.compile("FROM\\s+(openjdk|eclipse-temurin|amazoncorretto|adoptopenjdk|liberica|azul/zulu-openjdk)[:\\s]([^\\s]+)", Pattern.CASE_INSENSITIVE);
 
+    private static final FileInterest INTEREST = FileInterest.builder()
+            .names("pom.xml")
+            .extensions(".gradle")
+            .prefixes("dockerfile")
+            .build();
+
+    @Override
+    public FileInterest interest() {
+        return INTEREST;
+    }
+
+    @Override
+    public boolean contentAddressable() {
+        return true;
+    }
+
     @Override
     public void inspect(Path file, Path projectRoot, DetectionResult result) {
-        String name = file.getFileName().toString().toLowerCase();
-        if (!(name.equals("pom.xml") || name.equals("dockerfile") || name.startsWith("dockerfile") || name.endsWith(".gradle"))) return;
+        inspect(new FileContext(file, projectRoot), result);
+    }
+
+    @Override
+    public void inspect(FileContext context, DetectionResult result) {
+        Path file = context.file();
+        String name = context.lowerName();
         try {
-            String txt = FileUtils.readFileToString(file.toFile(), StandardCharsets.UTF_8);
+            CharSequence txt = context.chars();
 
             // Check for Java version in pom.xml or gradle files
             if (name.equals("pom.xml") || name.endsWith(".gradle")) {
@@ -0,0 +1,70 @@
+package com.example.detector.detectors.sbom;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything {@link SbomProcessor} learns about one SBOM component, computed in a single pass:
+ * the inferred language, the version to report, the evidence string and the matched
+ * technology keys of the registry sections SBOM processing records.
+ */
+public final class ComponentClassification {
+
+    private final String language;
+    private final String effectiveVersion;
+    private final String evidence;
+    private final boolean container;
+    private final Map<String, List<String>> hits;
+
+    ComponentClassification(String language, String effectiveVersion, String evidence,
+                            boolean container, Map<String, List<String>> hits) {
+        this.language = language;
+        this.effectiveVersion = effectiveVersion;
+        this.evidence = evidence;
+        this.container = container;
+        this.hits = hits;
+    }
+
+    /**
+     * Language inferred from the PURL, or null.
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Component version, falling back to the PURL version; may be null.
+     */
+    public String getEffectiveVersion() {
+        return effectiveVersion;
+    }
+
+    /**
+     * {@code name:version (purl)}, as recorded against every detection of this component.
+     */
+    public String getEvidence() {
+        return evidence;
+    }
+
+    /**
+     * Whether CycloneDX marks the component as {@code type=container}.
+     */
+    public boolean isContainer() {
+        return container;
+    }
+
+    /**
+     * Matched technology keys per registry section name, in registry order; sections without
+     * matches are omitted.
+     */
+    public Map<String, List<String>> getHits() {
+        return hits;
+    }
+
+    /**
+     * Matched technology keys of one registry section; empty if none.
+     */
+    public List<String> hits(String section) {
+        return hits.getOrDefault(section, List.of());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.detector.detectors.sbom;
+
+import java.util.Locale;
+
+/**
+ * Per-component values needed by {@link RegistryMatcher}, normalised once per component
+ * rather than once per registry entry and pattern.
+ */
+final class MatchInput {
+    final String purl;
+    final Purl parts;
+    /** {@code text + " " + purl}, lower-cased. */
+    final String hay;
+    final String hayTrimmed;
+    final String ecosystem;
+
+    // Lower-cased PURL components; null when absent
+    final String purlLower;
+    final String namespaceLower;
+    final String decodedNamespaceLower;
+    final String nameLower;
+    final String versionLower;
+    final String typeLower;
+
+    private MatchInput(String text, String purl) {
+        this.purl = purl;
+        this.hay = ((text == null ? "" : text) + " " + (purl == null ? "" : purl)).toLowerCase(Locale.ROOT);
+        this.hayTrimmed = hay.trim();
+        this.parts = (purl == null || purl.isBlank()) ? null : Purl.parse(purl);
+        if (parts != null) {
+            this.ecosystem = parts.ecosystem();
+            this.purlLower = parts.getOriginal().toLowerCase(Locale.ROOT);
+            this.namespaceLower = lower(parts.getNamespace());
+            this.decodedNamespaceLower = lower(parts.getDecodedNamespace());
+            this.nameLower = lower(parts.getName());
+            this.versionLower = lower(parts.getVersion());
+            this.typeLower = lower(parts.getType());
+        } else {
+            this.ecosystem = null;
+            this.purlLower = null;
+            this.namespaceLower = null;
+            this.decodedNamespaceLower = null;
+            this.nameLower = null;
+            this.versionLower = null;
+            this.typeLower = null;
+        }
+    }
+
+    static MatchInput of(String text, String purl) {
+        return new MatchInput(text, purl);
+    }
+
+    boolean hasPurl() {
+        return purl != null;
+    }
+
+    /**
+     * Scoped package (non-blank namespace); never matched by {@code purlMatch: "name"} entries.
+     */
+    boolean isScoped() {
+        return parts != null && parts.hasNamespace();
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.detector.detectors.sbom;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * A conservatively parsed package URL ({@code pkg:type/namespace/name@version?qualifiers#subpath}).
+ * The last path segment is the name and everything between type and name the namespace.
+ * Lower-cased and decoded forms are computed once here, so matchers can compare
+ * against them repeatedly without re-normalising.
+ */
+public final class Purl {
+    private final String original;
+    private final String type;
+    private final String namespace;
+    private final String name;
+    private final String version;
+
+    private final String decodedNamespace;
+
+    private Purl(String original, String type, String namespace, String name, String version) {
+        this.original = original;
+        this.type = type;
+        this.namespace = namespace;
+        this.name = name;
+        this.version = version;
+        this.decodedNamespace = decode(namespace);
+    }
+
+    /**
+     * Parse a PURL; returns null for null input.
+     */
+    public static Purl parse(String purl) {
+        if (purl == null) return null;
+        // We'll do a simple conservative parse
+        String working = purl.trim();
+        if (working.startsWith("pkg:")) working = working.substring(4);
+        String type = null, namespace = null, name, version = null;
+        int qIdx = working.indexOf('?');
+        if (qIdx >= 0) working = working.substring(0, qIdx);
+        int hashIdx = working.indexOf('#');
+        if (hashIdx >= 0) working = working.substring(0, hashIdx);
+
+        // split version
+        int atIdx = working.indexOf('@');
+        if (atIdx >= 0) {
+            version = working.substring(atIdx + 1);
+            working = working.substring(0, atIdx);
+        }
+
+        // first slash divides type and the rest
+        int firstSlash = working.indexOf('/');
+        if (firstSlash > 0) {
+            type = working.substring(0, firstSlash);
+            String rest = working.substring(firstSlash + 1);
+            // rest may contain multiple path segments: namespace/name OR name only OR namespace/name/subpath
+            // We'll treat last segment as name, preceeding as namespace
+            int lastSlash = rest.lastIndexOf('/');
+            if (lastSlash >= 0) {
+                namespace = rest.substring(0, lastSlash);
+                name = rest.substring(lastSlash + 1);
+            } else {
+                name = rest;
+            }
+        } else {
+            // no slash - weird but capture as name
+            name = working;
+        }
+
+        return new Purl(purl, type, namespace, name, version);
+    }
+
+    /**
+     * Version from a PURL string without a full parse: the text between the first '@' and the
+     * qualifiers/subpath. Returns null if there is none.
+     */
+    public static String versionOf(String purl) {
+        if (purl == null || purl.isBlank()) {
+            return null;
+        }
+        // Find @ symbol which precedes version
+        int atIdx = purl.indexOf('@');
+        if (atIdx < 0) {
+            return null;
+        }
+        // Version ends at ? (qualifiers) or # (subpath) or end of string
+        int endIdx = purl.length();
+        int qIdx = purl.indexOf('?', atIdx + 1);
+        int hashIdx = purl.indexOf('#', atIdx + 1);
+        if (qIdx >= 0 && qIdx < endIdx) endIdx = qIdx;
+        if (hashIdx >= 0 && hashIdx < endIdx) endIdx = hashIdx;
+
+        String version = purl.substring(atIdx + 1, endIdx);
+        return version.isBlank() ? null : version;
+    }
+
+    public String getOriginal() {
+        return original;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Namespace with URL escapes decoded (e.g. {@code %40types} becomes {@code @types}).
+     */
+    public String getDecodedNamespace() {
+        return decodedNamespace;
+    }
+
+    /**
+     * Whether the package lives in a namespace, e.g. an npm scoped package.
+     */
+    public boolean hasNamespace() {
+        return decodedNamespace != null && !decodedNamespace.isBlank();
+    }
+
+    /**
+     * Lower-case PURL type, used to pick the registry entries of that ecosystem.
+     */
+    public String ecosystem() {
+        return type == null ? null : type.toLowerCase(Locale.ROOT);
+    }
+
+    private static String decode(String value) {
+        if (value == null) return null;
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            return value;
+        }
+    }
+}
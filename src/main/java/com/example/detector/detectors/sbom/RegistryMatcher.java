@@ -1,14 +1,18 @@
 package com.example.detector.detectors.sbom;
 
+import com.example.detector.config.CompiledRegistry;
+import com.example.detector.config.ContainsIndex;
+import com.example.detector.config.ExactIndex;
+import com.example.detector.config.PurlMatch;
+import com.example.detector.config.RegexIndex;
+import com.example.detector.config.RegistryEntry;
 import com.example.detector.config.RegistryLoader;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.detector.config.RegistrySection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * RegistryMatcher - supports registry entries with fields:
@@ -16,17 +20,36 @@ import java.util.regex.Pattern;
  *  - sbomMatch (array)
  *  - files (array)
  *  - match ("contains" | "exact" | "regex") default "contains"
+ *  - ecosystems (array of PURL types) optional; restricts the entry to components of those types
  *
  * Provides purl-aware exact matching:
  *  - pattern can match namespace, name, namespace/name, namespace/name@version, or full purl
+ *
+ * Matching runs against the {@link CompiledRegistry}; a component only matches entries of its
+ * PURL ecosystem. All "contains" entries of all sections are resolved by one multi-pattern scan
+ * per component ({@link ContainsIndex}) and all "exact" entries by a few hash lookups of the
+ * component's normalised keys ({@link ExactIndex}); these registry-wide indexes are shared by
+ * every ecosystem, and hits of entries for another ecosystem are dropped afterwards, which costs
+ * a set lookup per hit instead of an automaton per ecosystem. The "regex" entries of a section
+ * are resolved by one pass of a merged, precompiled expression ({@link RegexIndex}) built per
+ * ecosystem, so only the patterns that can apply to the component run at all.
  */
+@Lazy
 @Component
 public class RegistryMatcher {
 
-    private final JsonNode registry;
+    private final CompiledRegistry registry;
 
+    @Autowired
     public RegistryMatcher(RegistryLoader loader) {
-        this.registry = loader.getRegistry();
+        this(loader.getCompiledRegistry());
+    }
+
+    /**
+     * A matcher over an already compiled registry, e.g. a synthetic one in benchmarks.
+     */
+    public RegistryMatcher(CompiledRegistry registry) {
+        this.registry = registry;
     }
 
     // Public API
@@ -42,6 +65,35 @@ public class RegistryMatcher {
         return matchSection("databases", text, purl);
     }
 
+    /**
+     * Match a component against every registry section in one pass.
+     *
+     * @return matched technology keys per section name, in registry order; sections without
+     *         matches are omitted
+     */
+    public Map<String, List<String>> matchAll(String text, String purl) {
+        return matchAll(text, purl, registry.getSections().keySet());
+    }
+
+    /**
+     * Match a component against the named registry sections in one pass; the per-section
+     * filtering and regex scans of all other sections are skipped.
+     *
+     * @return matched technology keys per section name, in registry order; sections without
+     *         matches are omitted
+     */
+    public Map<String, List<String>> matchAll(String text, String purl, Set<String> sectionNames) {
+        MatchInput in = MatchInput.of(text, purl);
+        BitSet registryHits = registryHits(in);
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        for (RegistrySection section : registry.getSections().values()) {
+            if (!sectionNames.contains(section.getName())) continue;
+            List<String> keys = matchSection(section, in, registryHits);
+            if (!keys.isEmpty()) out.put(section.getName(), keys);
+        }
+        return out;
+    }
+
     public Optional<String> inferLanguageFromPurl(String purl) {
         if (purl == null) return Optional.empty();
         String lower = purl.toLowerCase(Locale.ROOT);
@@ -58,337 +110,140 @@ public class RegistryMatcher {
     // Internal helpers
 
     private List<String> matchSection(String sectionName, String text, String purl) {
-        List<String> out = new ArrayList<>();
-        JsonNode section = registry.path(sectionName);
-        if (section.isMissingNode() || !section.isObject()) return out;
-
-        String hay = ( (text == null ? "" : text) + " " + (purl == null ? "" : purl) ).toLowerCase(Locale.ROOT);
-
-        Iterator<String> it = section.fieldNames();
-        while (it.hasNext()) {
-            String key = it.next();
-            JsonNode node = section.get(key);
-            if (node == null || node.isMissingNode()) continue;
-
-            String defaultMatch = node.path("match").asText("contains").toLowerCase(Locale.ROOT);
-            String purlMatchSetting = node.path("purlMatch").asText("namespace").toLowerCase(Locale.ROOT);
-            if (purlMatchSetting.isBlank()) {
-                purlMatchSetting = "namespace";
-            }
+        RegistrySection section = registry.section(sectionName);
+        if (section.isEmpty()) return new ArrayList<>();
 
-            // Early check: if purlMatch="name" and package has namespace, skip this entry entirely
-            // to avoid false positives from scoped packages (e.g., don't match "react" in "@testing-library/react")
-            if ("name".equals(purlMatchSetting) && purl != null) {
-                PurlParts parts = parsePurl(purl);
-                if (parts != null && parts.namespace != null) {
-                    try {
-                        String decodedNamespace = URLDecoder.decode(parts.namespace, StandardCharsets.UTF_8);
-                        if (decodedNamespace != null && !decodedNamespace.isBlank()) {
-                            // This is a scoped package, skip matching when purlMatch="name"
-                            continue;
-                        }
-                    } catch (Exception ex) {
-                        // If decoding fails, check if namespace is non-empty
-                        if (!parts.namespace.isBlank()) {
-                            continue;
-                        }
-                    }
-                }
-            }
+        MatchInput in = MatchInput.of(text, purl);
+        return matchSection(section, in, registryHits(in));
+    }
 
-            boolean matched = false;
+    private List<String> matchSection(RegistrySection section, MatchInput in, BitSet registryHits) {
+        BitSet matched = new BitSet();
 
-            // 1) keywords
-            JsonNode keywords = node.path("keywords");
-            if (keywords.isArray()) {
-                for (JsonNode kw : keywords) {
-                    if (kw.isTextual()) {
-                        if (applyMatch(hay, kw.asText(), defaultMatch, purl)) {
-                            out.add(key);
-                            matched = true;
-                            break;
-                        }
-                    }
-                }
+        // "contains" and "exact" entries: already resolved by the registry-wide indexes
+        for (int id = registryHits.nextSetBit(section.getFirstId());
+             id >= 0 && id < section.getEndId();
+             id = registryHits.nextSetBit(id + 1)) {
+            RegistryEntry entry = registry.entry(id);
+            if (entry.appliesTo(in.ecosystem) && !skipScoped(entry, in)) {
+                matched.set(id);
             }
-            if (matched) continue;
-
-            // 2) sbomMatch
-            JsonNode sboms = node.path("sbomMatch");
-            if (sboms.isArray()) {
-                for (JsonNode s : sboms) {
-                    if (s.isTextual()) {
-                        String pattern = s.asText();
-                        // When purlMatch is specified, use name/namespace matching from PURL
-                        // This allows precise control over matching scoped vs non-scoped packages
-                        if (purl != null) {
-                            if (matchesNameOrNamespace(pattern, purl, defaultMatch, purlMatchSetting)) {
-                                out.add(key);
-                                matched = true;
-                                break;
-                            }
-                            // If purlMatch is specified, skip standard matching to avoid false positives
-                            // (e.g., avoid matching "react" in "@testing-library/react" when purlMatch="name")
-                            continue;
-                        }
-                        // Fall back to standard matching only if no PURL is available
-                        if (applyMatch(hay, pattern, defaultMatch, purl)) {
-                            out.add(key);
-                            matched = true;
-                            break;
-                        }
-                    }
-                }
-            }
-            if (matched) continue;
+        }
 
-            // 3) files (match file names / dockerfile entries if needed)
-            JsonNode files = node.path("files");
-            if (files.isArray()) {
-                for (JsonNode f : files) {
-                    if (f.isTextual()) {
-                        if (applyMatch(hay, f.asText(), defaultMatch, purl)) {
-                            out.add(key);
-                            matched = true;
-                            break;
-                        }
-                    }
+        // "regex" entries: one pass of the merged expression of the component's ecosystem
+        RegexIndex regexIndex = section.getRegexIndex(in.ecosystem);
+        if (!regexIndex.isEmpty()) {
+            BitSet regexHits = regexHits(regexIndex, in);
+            for (int id = regexHits.nextSetBit(0); id >= 0; id = regexHits.nextSetBit(id + 1)) {
+                RegistryEntry entry = registry.entry(id);
+                if (!skipScoped(entry, in)) {
+                    matched.set(id);
                 }
             }
         }
 
-        return dedupePreserveOrder(out);
-    }
-
-    /**
-     * Apply a single pattern with the configured match type against haystack and purl.
-     * matchType: contains (default), exact, regex
-     */
-    private boolean applyMatch(String hayLower, String rawPattern, String matchType, String purl) {
-        if (rawPattern == null || rawPattern.isBlank()) return false;
-
-        String patternLower = rawPattern.toLowerCase(Locale.ROOT);
-        matchType = (matchType == null) ? "contains" : matchType.toLowerCase(Locale.ROOT);
-
-        switch (matchType) {
-            case "exact":
-                // Exact should compare against purl components (namespace/name, namespace, name, full purl),
-                // or against the haystack full string.
-                if (purl != null && purlMatchesExact(patternLower, purl)) return true;
-                // fallback: full hay equality (rare)
-                return hayLower.trim().equals(patternLower);
-
-            case "regex":
-                try {
-                    Pattern p = Pattern.compile(rawPattern, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-                    Matcher m = p.matcher(hayLower);
-                    return m.find();
-                } catch (Exception ex) {
-                    // malformed regex => fallback to contains
-                    return hayLower.contains(patternLower);
-                }
-
-            case "contains":
-            default:
-                return hayLower.contains(patternLower);
+        // Emit in registry order; entry keys are unique within a section
+        List<String> out = new ArrayList<>(matched.cardinality());
+        for (int id = matched.nextSetBit(0); id >= 0; id = matched.nextSetBit(id + 1)) {
+            out.add(registry.entry(id).getKey());
         }
+        return out;
     }
 
     /**
-     * Checks if pattern matches the name or namespace from PURL.
-     * Respects the match type (contains, exact, regex) and purlMatch setting (name, namespace, both).
-     * 
-     * @param pattern The pattern to match
-     * @param purl The PURL string to extract name/namespace from
-     * @param matchType The match type: "contains", "exact", or "regex"
-     * @param purlMatchSetting Which PURL component to match: "name", "namespace", or "both"
+     * Ids of all "contains" and "exact" entries (any section) that match the component.
      */
-    private boolean matchesNameOrNamespace(String pattern, String purl, String matchType, String purlMatchSetting) {
-        if (pattern == null || pattern.isBlank() || purl == null || purl.isBlank()) {
-            return false;
-        }
-
-        PurlParts parts = parsePurl(purl);
-        if (parts == null) return false;
-
-        String patternLower = pattern.toLowerCase(Locale.ROOT);
-        matchType = (matchType == null) ? "contains" : matchType.toLowerCase(Locale.ROOT);
-        purlMatchSetting = (purlMatchSetting == null || purlMatchSetting.isBlank()) 
-            ? "namespace" 
-            : purlMatchSetting.toLowerCase(Locale.ROOT);
-
-        boolean checkNamespace = "both".equals(purlMatchSetting) || "namespace".equals(purlMatchSetting);
-        boolean checkName = "both".equals(purlMatchSetting) || "name".equals(purlMatchSetting);
-
-        // Decode URL-encoded namespace (e.g., %40 -> @)
-        String decodedNamespace = null;
-        if (parts.namespace != null) {
-            try {
-                decodedNamespace = URLDecoder.decode(parts.namespace, StandardCharsets.UTF_8);
-            } catch (Exception ex) {
-                decodedNamespace = parts.namespace;
-            }
-        }
-
-        // Check namespace match if enabled
-        if (checkNamespace && decodedNamespace != null) {
-            String nsLower = decodedNamespace.toLowerCase(Locale.ROOT);
-            if (matchesPattern(patternLower, nsLower, matchType, pattern)) {
-                return true;
-            }
-        }
-
-        // Check name match if enabled
-        if (checkName && parts.name != null) {
-            // When purlMatch is "name", only match if there's no namespace (not a scoped package)
-            if ("name".equals(purlMatchSetting)) {
-                // For name-only matching, exclude scoped packages (packages with namespace)
-                if (decodedNamespace != null && !decodedNamespace.isBlank()) {
-                    return false;
-                }
-            }
-            // Check name match
-            String nameLower = parts.name.toLowerCase(Locale.ROOT);
-            if (matchesPattern(patternLower, nameLower, matchType, pattern)) {
-                return true;
-            }
-        }
-
-        return false;
+    private BitSet registryHits(MatchInput in) {
+        BitSet hits = containsHits(in);
+        if (!registry.getExactIndex().isEmpty()) hits.or(exactHits(in));
+        return hits;
     }
 
     /**
-     * Helper to match pattern against a target string based on match type.
+     * Ids of all "contains" entries with a pattern that occurs where that pattern is matched:
+     * keywords/files in the haystack, sbomMatch in the namespace or name when the component
+     * has a PURL, otherwise in the haystack as well.
      */
-    private boolean matchesPattern(String patternLower, String targetLower, String matchType, String rawPattern) {
-        switch (matchType) {
-            case "exact":
-                return patternLower.equals(targetLower);
-            case "regex":
-                try {
-                    Pattern p = Pattern.compile(rawPattern, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-                    Matcher m = p.matcher(targetLower);
-                    return m.find();
-                } catch (Exception ex) {
-                    // malformed regex => fallback to contains
-                    return targetLower.contains(patternLower);
-                }
-            case "contains":
-            default:
-                return targetLower.contains(patternLower);
-        }
+    private BitSet containsHits(MatchInput in) {
+        return collectHits(registry.getContainsIndex()::scan, in.hay, in);
     }
 
     /**
-     * Matches pattern exactly against PURL components:
-     * supports matching:
+     * Ids of all "exact" entries with a pattern equal to one of the component's keys.
+     * keywords/files patterns may equal the trimmed haystack or one of the PURL forms:
      *   - full purl: "pkg:maven/org.springframework.boot/spring-boot-starter@3.5.0"
      *   - namespace only: "org.springframework.boot"
      *   - name only: "spring-boot-starter-actuator"
      *   - namespace/name: "org.springframework.boot/spring-boot-starter-actuator"
      *   - namespace/name@version: "org.springframework.boot/spring-boot-starter-actuator@3.5.0"
+     *   - purl type, or type:namespace
+     * sbomMatch patterns follow the purlMatch rules of {@link #containsHits(MatchInput)}.
      */
-    private boolean purlMatchesExact(String patternLower, String purl) {
-        if (purl == null || purl.isBlank()) return false;
-        PurlParts parts = parsePurl(purl);
-        if (parts == null) return false;
-
-        // full purl (normalized lower-case)
-        String normalizedPurl = parts.original.toLowerCase(Locale.ROOT);
-
-        if (patternLower.equals(normalizedPurl)) return true;
-
-        // namespace only
-        if (parts.namespace != null && patternLower.equals(parts.namespace.toLowerCase(Locale.ROOT))) return true;
-
-        // name only
-        if (parts.name != null && patternLower.equals(parts.name.toLowerCase(Locale.ROOT))) return true;
-
-        // namespace/name
-        if (parts.namespace != null && parts.name != null) {
-            String nsName = (parts.namespace + "/" + parts.name).toLowerCase(Locale.ROOT);
-            if (patternLower.equals(nsName)) return true;
-
-            // namespace/name@version
-            if (parts.version != null) {
-                String nsNameVer = nsName + "@" + parts.version.toLowerCase(Locale.ROOT);
-                if (patternLower.equals(nsNameVer)) return true;
+    private BitSet exactHits(MatchInput in) {
+        ExactIndex index = registry.getExactIndex();
+        BitSet hits = collectHits(index::lookup, in.hayTrimmed, in);
+        if (in.parts != null) {
+            index.lookup(in.purlLower, hits, null);
+            index.lookup(in.namespaceLower, hits, null);
+            index.lookup(in.nameLower, hits, null);
+            if (in.namespaceLower != null && in.nameLower != null) {
+                String nsName = in.namespaceLower + "/" + in.nameLower;
+                index.lookup(nsName, hits, null);
+                if (in.versionLower != null) index.lookup(nsName + "@" + in.versionLower, hits, null);
+            }
+            index.lookup(in.typeLower, hits, null);
+            if (in.typeLower != null && in.namespaceLower != null) {
+                index.lookup(in.typeLower + ":" + in.namespaceLower, hits, null);
             }
         }
-
-        // as last resort, check if pattern equals purl type or purl type + ":" + namespace
-        if (parts.type != null && patternLower.equals(parts.type.toLowerCase(Locale.ROOT))) return true;
-        if (parts.type != null && parts.namespace != null) {
-            String tNs = (parts.type + ":" + parts.namespace).toLowerCase(Locale.ROOT);
-            if (patternLower.equals(tNs)) return true;
-        }
-
-        return false;
+        return hits;
     }
 
-    private PurlParts parsePurl(String purl) {
-        if (purl == null) return null;
-        // Typical PURL: pkg:type/namespace/name@version?qualifiers#subpath
-        // We'll do a simple conservative parse
-        try {
-            String working = purl.trim();
-            if (working.startsWith("pkg:")) working = working.substring(4);
-            String type = null, namespace = null, name = null, version = null;
-            int qIdx = working.indexOf('?');
-            if (qIdx >= 0) working = working.substring(0, qIdx);
-            int hashIdx = working.indexOf('#');
-            if (hashIdx >= 0) working = working.substring(0, hashIdx);
+    /**
+     * Ids of the section's "regex" entries with a pattern found where that pattern is matched,
+     * following the same rules as {@link #containsHits(MatchInput)}.
+     */
+    private BitSet regexHits(RegexIndex index, MatchInput in) {
+        return collectHits(index::scan, in.hay, in);
+    }
 
-            // split version
-            int atIdx = working.indexOf('@');
-            if (atIdx >= 0) {
-                version = working.substring(atIdx + 1);
-                working = working.substring(0, atIdx);
+    /**
+     * Runs an index over the haystack for keywords/files (and sbomMatch when there is no PURL),
+     * and over the PURL namespace and name for the sbomMatch patterns of entries whose
+     * purlMatch checks them.
+     */
+    private BitSet collectHits(HitScanner index, String hay, MatchInput in) {
+        BitSet hits = new BitSet();
+        index.scan(hay, hits, in.hasPurl() ? null : hits);
+
+        if (in.parts != null) {
+            BitSet purlHits = new BitSet();
+            if (in.decodedNamespaceLower != null) {
+                index.scan(in.decodedNamespaceLower, null, purlHits);
+                for (int id = purlHits.nextSetBit(0); id >= 0; id = purlHits.nextSetBit(id + 1)) {
+                    if (registry.entry(id).getPurlMatch().checksNamespace()) hits.set(id);
+                }
+                purlHits.clear();
             }
-
-            // first slash divides type and the rest
-            int firstSlash = working.indexOf('/');
-            if (firstSlash > 0) {
-                type = working.substring(0, firstSlash);
-                String rest = working.substring(firstSlash + 1);
-                // rest may contain multiple path segments: namespace/name OR name only OR namespace/name/subpath
-                // We'll treat last segment as name, preceeding as namespace
-                int lastSlash = rest.lastIndexOf('/');
-                if (lastSlash >= 0) {
-                    namespace = rest.substring(0, lastSlash);
-                    name = rest.substring(lastSlash + 1);
-                } else {
-                    name = rest;
+            if (in.nameLower != null) {
+                index.scan(in.nameLower, null, purlHits);
+                for (int id = purlHits.nextSetBit(0); id >= 0; id = purlHits.nextSetBit(id + 1)) {
+                    if (registry.entry(id).getPurlMatch().checksName()) hits.set(id);
                 }
-            } else {
-                // no slash - weird but capture as name
-                name = working;
             }
-
-            return new PurlParts(purl, type, namespace, name, version);
-        } catch (Exception ex) {
-            return null;
         }
+        return hits;
     }
 
-    private List<String> dedupePreserveOrder(List<String> in) {
-        LinkedHashSet<String> set = new LinkedHashSet<>(in);
-        return new ArrayList<>(set);
+    /** Common shape of {@link ContainsIndex#scan}, {@link RegexIndex#scan} and {@link ExactIndex#lookup}. */
+    @FunctionalInterface
+    private interface HitScanner {
+        void scan(String lowerText, BitSet textHits, BitSet sbomHits);
     }
 
-    // Helper container
-    private static final class PurlParts {
-        final String original;
-        final String type;
-        final String namespace;
-        final String name;
-        final String version;
-        PurlParts(String original, String type, String namespace, String name, String version) {
-            this.original = original;
-            this.type = type;
-            this.namespace = namespace;
-            this.name = name;
-            this.version = version;
-        }
+    private static boolean skipScoped(RegistryEntry entry, MatchInput in) {
+        // If purlMatch="name" and package has namespace, skip this entry entirely to avoid
+        // false positives from scoped packages (e.g., don't match "react" in "@testing-library/react")
+        return entry.getPurlMatch() == PurlMatch.NAME && in.isScoped();
     }
 }
@@ -1,105 +1,179 @@
 package com.example.detector.detectors.sbom;
 
+import com.example.detector.metrics.ScanMetrics;
 import com.example.detector.model.DetectionResult;
+import io.micrometer.core.instrument.Timer;
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.metadata.ToolInformation;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Processes a CycloneDX Bom into DetectionResult using RegistryMatcher.
  */
+@org.springframework.context.annotation.Lazy
 @org.springframework.stereotype.Component
 public class SbomProcessor {
 
+    /**
+     * Where the matches of each registry section are recorded. A section only needs an entry
+     * here to take part in SBOM processing; it is matched in the same pass as the others, and
+     * sections without an entry are not matched at all.
+     */
+    private static final Map<String, SectionSink> SECTION_SINKS = Map.of(
+            "frameworks", DetectionResult::addFramework,
+            "cloud_sdks", DetectionResult::addCloudSdk,
+            "databases", DetectionResult::addDatabase);
+
     private final RegistryMatcher matcher;
+    private final Timer matchTimer;
 
     public SbomProcessor(RegistryMatcher matcher) {
+        this(matcher, new ScanMetrics());
+    }
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public SbomProcessor(RegistryMatcher matcher, ScanMetrics metrics) {
         this.matcher = matcher;
+        this.matchTimer = metrics.getRegistryMatch();
+    }
+
+    /**
+     * Classify a CycloneDX component: the PURL is parsed and the name/PURL normalised once,
+     * and every registry section it records is matched in the same pass.
+     */
+    public ComponentClassification classify(Component c) {
+        String type = (c.getType() != null) ? c.getType().toString() : null;
+        return classify(c.getName(), c.getVersion(), c.getPurl(), "container".equalsIgnoreCase(type));
+    }
+
+    /**
+     * Classify a package known only by name and (optional) PURL.
+     */
+    public ComponentClassification classify(String name, String purl) {
+        return classify(name, null, purl, false);
+    }
+
+    private ComponentClassification classify(String name, String version, String purl, boolean container) {
+        // Language inference from PURL (safe null handling)
+        String language = null;
+        if (purl != null) {
+            try {
+                language = matcher.inferLanguageFromPurl(purl).orElse(null);
+            } catch (Exception ignored) {
+                // no language hint
+            }
+        }
+
+        // Extract version from component or PURL
+        String effectiveVersion = version;
+        if ((effectiveVersion == null || effectiveVersion.isBlank()) && purl != null) {
+            effectiveVersion = Purl.versionOf(purl);
+        }
+
+        long start = System.nanoTime();
+        Map<String, List<String>> hits = matcher.matchAll(name == null ? "" : name, purl, SECTION_SINKS.keySet());
+        matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new ComponentClassification(language, effectiveVersion,
+                buildEvidence(name, version, purl), container, hits);
     }
 
     /**
      * Populate detection result from a CycloneDX BOM.
      * Adds languages, frameworks, runtimes, cloudSdks, databases, containers.
+     *
+     * @return number of components processed, nested ones included
      */
-    public void processBom(Bom bom, DetectionResult result) {
-        if (bom == null) return;
+    public int processBom(Bom bom, DetectionResult result) {
+        if (bom == null) return 0;
+
+        int components = processComponents(bom.getComponents(), result);
+
+        // Metadata tools may hint at build system / language
+        Metadata metadata = bom.getMetadata();
+        if (metadata != null && metadata.getTools() != null) {
+            metadata.getTools().forEach(tool -> applyTool(tool.getVendor(), tool.getName(), result));
+        }
+        if (metadata != null && metadata.getToolChoice() != null) {
+            ToolInformation tools = metadata.getToolChoice();
+            if (tools.getComponents() != null) {
+                tools.getComponents().forEach(tool -> applyTool(tool.getGroup(), tool.getName(), result));
+            }
+            if (tools.getServices() != null) {
+                tools.getServices().forEach(tool -> applyTool(tool.getGroup(), tool.getName(), result));
+            }
+        }
+        return components;
+    }
 
-        List<Component> components = bom.getComponents();
-        if (components != null) {
-            for (Component c : components) {
+    /**
+     * A visitor for {@link SbomService#streamBom} that classifies each streamed component and
+     * records it in the result, the same way {@link #processBom} does for a parsed Bom.
+     */
+    public SbomVisitor visitor(DetectionResult result) {
+        return new SbomVisitor() {
+            @Override
+            public void component(String name, String version, String purl, String type) {
                 try {
-                    String name = c.getName();
-                    String version = c.getVersion();
-                    String purl = c.getPurl(); // may be null
-                    String type = (c.getType() != null) ? c.getType().toString() : null;
-
-                    // 1) Language inference from PURL (safe null handling)
-                    Optional<String> lang = Optional.empty();
-                    if (purl != null) {
-                        try {
-                            lang = matcher.inferLanguageFromPurl(purl);
-                        } catch (Exception ignored) {
-                            lang = Optional.empty();
-                        }
-                    }
-                    lang.ifPresent(result.languages::add);
-
-                    // Extract version from component or PURL
-                    String effectiveVersion = version;
-                    if ((effectiveVersion == null || effectiveVersion.isBlank()) && purl != null) {
-                        effectiveVersion = extractVersionFromPurl(purl);
-                    }
-
-                    // 2) Framework detection (matchFrameworks handles sbomMatch and keywords)
-                    List<String> frameworks = matcher.matchFrameworks(name == null ? "" : name, purl);
-                    for (String fw : frameworks) {
-                        String frameworkKey = appendVersionIfAvailable(fw, effectiveVersion);
-                        String evidence = buildEvidence(name, version, purl);
-                        result.addFramework(frameworkKey, evidence);
-                    }
-
-                    // 3) Cloud SDKs
-                    List<String> clouds = matcher.matchCloudSdks(name == null ? "" : name, purl);
-                    for (String cl : clouds) {
-                        String cloudKey = appendVersionIfAvailable(cl, effectiveVersion);
-                        String evidence = buildEvidence(name, version, purl);
-                        result.addCloudSdk(cloudKey, evidence);
-                    }
-
-                    // 4) Databases
-                    List<String> dbs = matcher.matchDatabases(name == null ? "" : name, purl);
-                    for (String db : dbs) {
-                        String dbKey = appendVersionIfAvailable(db, effectiveVersion);
-                        String evidence = buildEvidence(name, version, purl);
-                        result.addDatabase(dbKey, evidence);
-                    }
-
-                    // 5) Containers (CycloneDX may mark components type=container)
-                    if ("container".equalsIgnoreCase(type)) {
-                        result.addInfrastructure("container", buildEvidence(name, version, purl));
-                    }
-
-                    // 6) Runtime heuristics from purl (simple)
-                    
+                    apply(classify(name, version, purl, "container".equalsIgnoreCase(type)), result);
                 } catch (Exception ex) {
                     // defensive per-component; continue
                 }
             }
+
+            @Override
+            public void tool(String vendor, String name) {
+                applyTool(vendor, name, result);
+            }
+        };
+    }
+
+    // Nested components first, matching the order in which streamBom reports them
+    private int processComponents(List<Component> components, DetectionResult result) {
+        if (components == null) return 0;
+        int count = components.size();
+        for (Component c : components) {
+            count += processComponents(c.getComponents(), result);
+            try {
+                apply(classify(c), result);
+            } catch (Exception ex) {
+                // defensive per-component; continue
+            }
         }
+        return count;
+    }
 
-        // Metadata tools may hint at build system / language
-        if (bom.getMetadata() != null && bom.getMetadata().getTools() != null) {
-            bom.getMetadata().getTools().forEach(tool -> {
-                try {
-                    String vendor = tool.getVendor() == null ? "" : tool.getVendor();
-                    String tname = tool.getName() == null ? "" : tool.getName();
-                    String combined = (vendor + " " + tname).toLowerCase();
-                    if (combined.contains("maven") || combined.contains("gradle")) result.languages.add("Java");
-                    if (combined.contains("pip") || combined.contains("poetry")) result.languages.add("Python");
-                } catch (Exception ignored) {}
-            });
+    private void applyTool(String vendor, String name, DetectionResult result) {
+        String combined = ((vendor == null ? "" : vendor) + " " + (name == null ? "" : name)).toLowerCase(Locale.ROOT);
+        if (combined.contains("maven") || combined.contains("gradle")) result.languages.add("Java");
+        if (combined.contains("pip") || combined.contains("poetry")) result.languages.add("Python");
+    }
+
+    /**
+     * Record a classified component in the result.
+     */
+    public void apply(ComponentClassification classification, DetectionResult result) {
+        if (classification.getLanguage() != null) {
+            result.languages.add(classification.getLanguage());
+        }
+
+        for (Map.Entry<String, List<String>> section : classification.getHits().entrySet()) {
+            SectionSink sink = SECTION_SINKS.get(section.getKey());
+            if (sink == null) continue;
+            for (String key : section.getValue()) {
+                String versionedKey = appendVersionIfAvailable(key, classification.getEffectiveVersion());
+                sink.add(result, versionedKey, classification.getEvidence());
+            }
+        }
+
+        // Containers (CycloneDX may mark components type=container)
+        if (classification.isContainer()) {
+            result.addInfrastructure("container", classification.getEvidence());
         }
     }
 
@@ -126,33 +200,8 @@ public class SbomProcessor {
         return key + ":" + version;
     }
 
-    /**
-     * Extracts version from PURL string.
-     * PURL format: pkg:type/namespace/name@version?qualifiers#subpath
-     * Returns version if found, null otherwise.
-     */
-    private String extractVersionFromPurl(String purl) {
-        if (purl == null || purl.isBlank()) {
-            return null;
-        }
-        try {
-            // Find @ symbol which precedes version
-            int atIdx = purl.indexOf('@');
-            if (atIdx < 0) {
-                return null;
-            }
-            // Version ends at ? (qualifiers) or # (subpath) or end of string
-            String afterAt = purl.substring(atIdx + 1);
-            int qIdx = afterAt.indexOf('?');
-            int hashIdx = afterAt.indexOf('#');
-            int endIdx = afterAt.length();
-            if (qIdx >= 0 && qIdx < endIdx) endIdx = qIdx;
-            if (hashIdx >= 0 && hashIdx < endIdx) endIdx = hashIdx;
-            
-            String version = afterAt.substring(0, endIdx);
-            return version.isBlank() ? null : version;
-        } catch (Exception e) {
-            return null;
-        }
+    @FunctionalInterface
+    private interface SectionSink {
+        void add(DetectionResult result, String key, String evidence);
     }
 }
@@ -1,9 +1,13 @@
 package com.example.detector.detectors.sbom;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
 import lombok.extern.slf4j.Slf4j;
 import org.cyclonedx.exception.ParseException;
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.parsers.JsonParser;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -12,9 +16,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 @Slf4j
+@Lazy
 @Service
 public class SbomService {
 
+    private static final JsonFactory JSON = new JsonFactory();
+
     /**
      * Parse a CycloneDX SBOM file (JSON) into a Bom object.
      * Returns null on parse error.
@@ -33,4 +40,140 @@ public class SbomService {
             
         } 
     }
+
+    /**
+     * Stream a CycloneDX SBOM file (JSON) into a visitor without building the Bom object model.
+     * Only {@code components[]} (name, version, purl, type and nested {@code components}) and
+     * {@code metadata.tools} are read; everything else is skipped token by token, so memory use
+     * does not grow with the size of the SBOM.
+     *
+     * A component is reported when its object closes, so nested components are reported before
+     * the component containing them. Components read before a syntax error have already been
+     * reported when the exception is thrown.
+     *
+     * @return number of components reported
+     */
+    public int streamBom(Path sbomFile, SbomVisitor visitor) throws IOException {
+        log.info("Streaming SBOM file: {}", sbomFile);
+        try (com.fasterxml.jackson.core.JsonParser p = JSON.createParser(Files.newInputStream(sbomFile))) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(p, "SBOM is not a JSON object");
+            }
+            int count = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken value = p.nextToken();
+                if ("components".equals(field) && value == JsonToken.START_ARRAY) {
+                    count += readComponents(p, visitor);
+                } else if ("metadata".equals(field) && value == JsonToken.START_OBJECT) {
+                    readMetadata(p, visitor);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            log.info("Streamed {} component(s) from SBOM: {}", count, sbomFile);
+            return count;
+        }
+    }
+
+    /**
+     * Parser positioned on the START_ARRAY of a components array; leaves it on the END_ARRAY.
+     */
+    private static int readComponents(com.fasterxml.jackson.core.JsonParser p, SbomVisitor visitor) throws IOException {
+        int count = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+            if (t == JsonToken.START_OBJECT) {
+                count += readComponent(p, visitor);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return count;
+    }
+
+    private static int readComponent(com.fasterxml.jackson.core.JsonParser p, SbomVisitor visitor) throws IOException {
+        String name = null;
+        String version = null;
+        String purl = null;
+        String type = null;
+        int count = 0;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "name": name = text(p, value); break;
+                case "version": version = text(p, value); break;
+                case "purl": purl = text(p, value); break;
+                case "type": type = text(p, value); break;
+                case "components":
+                    if (value == JsonToken.START_ARRAY) {
+                        count += readComponents(p, visitor);
+                    } else {
+                        p.skipChildren();
+                    }
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        visitor.component(name, version, purl, type);
+        return count + 1;
+    }
+
+    private static void readMetadata(com.fasterxml.jackson.core.JsonParser p, SbomVisitor visitor) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            if ("tools".equals(field) && value == JsonToken.START_ARRAY) {
+                // CycloneDX <= 1.4: [{ "vendor": ..., "name": ... }]
+                readTools(p, visitor, "vendor");
+            } else if ("tools".equals(field) && value == JsonToken.START_OBJECT) {
+                // CycloneDX 1.5+: { "components": [...], "services": [...] }
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String kind = p.getCurrentName();
+                    if (p.nextToken() == JsonToken.START_ARRAY
+                            && ("components".equals(kind) || "services".equals(kind))) {
+                        readTools(p, visitor, "group");
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private static void readTools(com.fasterxml.jackson.core.JsonParser p, SbomVisitor visitor, String vendorField) throws IOException {
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+            if (t != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            String vendor = null;
+            String name = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken value = p.nextToken();
+                if (vendorField.equals(field)) {
+                    vendor = text(p, value);
+                } else if ("name".equals(field)) {
+                    name = text(p, value);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            visitor.tool(vendor, name);
+        }
+    }
+
+    private static String text(com.fasterxml.jackson.core.JsonParser p, JsonToken value) throws IOException {
+        if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+            return p.getValueAsString();
+        }
+        p.skipChildren();
+        return null;
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.detector.detectors.sbom;
+
+/**
+ * Receives the parts of a CycloneDX SBOM that detection needs, one at a time, as
+ * {@link SbomService#streamBom} reads them.
+ */
+public interface SbomVisitor {
+
+    /**
+     * A component from {@code components[]}, at any nesting depth. Any argument may be null.
+     */
+    void component(String name, String version, String purl, String type);
+
+    /**
+     * A tool from {@code metadata.tools}. Any argument may be null.
+     */
+    default void tool(String vendor, String name) {
+    }
+}
@@ -5,6 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Slf4j
 @Service
@@ -25,4 +35,58 @@ public class DetectorService {
                 result.runtimes.size());
         return result;
     }
+
+    /**
+     * Scan several projects, up to {@code parallelism} at a time. Results are handed to
+     * {@code sink} on the calling thread in the order of {@code projectRoots}, each as soon as it
+     * and all projects before it are done. A project whose scan fails yields a result with only
+     * {@link DetectionResult#error} set; the other projects are not affected.
+     *
+     * At most {@code 2 * parallelism} projects are in flight: the next one is only submitted once
+     * the oldest result has been handed to the sink, so results finished behind a slow project do
+     * not pile up with the number of projects.
+     */
+    public void scanProjects(List<Path> projectRoots, int parallelism, BiConsumer<Path, DetectionResult> sink)
+            throws InterruptedException {
+        int threads = Math.max(1, Math.min(parallelism, projectRoots.size()));
+        int window = 2 * threads;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, projectThreads());
+        try {
+            Deque<Future<DetectionResult>> pending = new ArrayDeque<>(window);
+            int submitted = 0;
+            for (int i = 0; i < projectRoots.size(); i++) {
+                while (submitted < projectRoots.size() && submitted - i < window) {
+                    Path root = projectRoots.get(submitted++);
+                    pending.add(pool.submit(() -> scanProject(root)));
+                }
+                DetectionResult result;
+                try {
+                    result = pending.poll().get();
+                } catch (ExecutionException e) {
+                    // Whatever the scan threw, errors included
+                    result = failed(projectRoots.get(i), e.getCause());
+                }
+                sink.accept(projectRoots.get(i), result);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static DetectionResult failed(Path projectRoot, Throwable cause) {
+        log.error("Project scan failed for: {}", projectRoot.toAbsolutePath(), cause);
+        DetectionResult result = new DetectionResult();
+        result.projectPath = projectRoot.toAbsolutePath().toString();
+        result.error = String.valueOf(cause);
+        return result;
+    }
+
+    private static ThreadFactory projectThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "project-scan-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
 }
@@ -0,0 +1,206 @@
+package com.example.detector.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled rules of the ignore files ({@code .gitignore}, {@code .dockerignore}) found on the
+ * way from the project root to a directory. Each directory that has its own ignore file gets a
+ * new level whose rules take precedence over those of its ancestors, as in git.
+ *
+ * Patterns are compiled once: plain names become string comparisons, {@code *.ext} and
+ * {@code prefix*} become suffix/prefix checks, and only the remaining globs become regular
+ * expressions.
+ */
+@Slf4j
+final class IgnoreRules {
+
+    static final IgnoreRules NONE = new IgnoreRules(null, "", List.of());
+
+    private final IgnoreRules parent;
+    /** Path of the directory holding these rules, relative to the root, with a trailing '/'; "" for the root. */
+    private final String base;
+    private final List<Rule> rules;
+
+    private IgnoreRules(IgnoreRules parent, String base, List<Rule> rules) {
+        this.parent = parent;
+        this.base = base;
+        this.rules = rules;
+    }
+
+    /**
+     * Rules for a directory containing the given ignore files, layered on top of this level.
+     *
+     * @param relDir       the directory relative to the root, "" for the root itself
+     * @param ignoreFiles  ignore files present in the directory
+     */
+    IgnoreRules with(String relDir, List<Path> ignoreFiles) {
+        List<Rule> compiled = new ArrayList<>();
+        for (Path file : ignoreFiles) {
+            // .dockerignore patterns are always relative to the build context (the root)
+            boolean docker = file.getFileName().toString().equals(".dockerignore");
+            if (docker && !relDir.isEmpty()) continue;
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Cannot read ignore file {}: {}", file, e.getMessage());
+                continue;
+            }
+            for (String line : lines) {
+                try {
+                    Rule rule = Rule.parse(line, docker);
+                    if (rule != null) compiled.add(rule);
+                } catch (PatternSyntaxException e) {
+                    log.debug("Skipping unsupported pattern '{}' in {}", line, file);
+                }
+            }
+        }
+        if (compiled.isEmpty()) return this;
+        return new IgnoreRules(this, relDir.isEmpty() ? "" : relDir + "/", List.copyOf(compiled));
+    }
+
+    /**
+     * Whether an entry is ignored. The innermost level with a matching rule decides, and
+     * within a level the last matching rule wins.
+     *
+     * @param relPath entry path relative to the root, '/'-separated
+     * @param name    entry file name
+     */
+    boolean isIgnored(String relPath, String name, boolean directory) {
+        for (IgnoreRules level = this; level != null && level != NONE; level = level.parent) {
+            String local = null;
+            for (int i = level.rules.size() - 1; i >= 0; i--) {
+                Rule rule = level.rules.get(i);
+                if (rule.directoryOnly && !directory) continue;
+                String subject;
+                if (rule.anchored) {
+                    if (local == null) local = relPath.substring(level.base.length());
+                    subject = local;
+                } else {
+                    subject = name;
+                }
+                if (rule.matcher.test(subject)) return !rule.negated;
+            }
+        }
+        return false;
+    }
+
+    private static final class Rule {
+        final boolean negated;
+        final boolean directoryOnly;
+        /** Matched against the path relative to the ignore file's directory, else against the name. */
+        final boolean anchored;
+        final Predicate<String> matcher;
+
+        private Rule(boolean negated, boolean directoryOnly, boolean anchored, Predicate<String> matcher) {
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+            this.matcher = matcher;
+        }
+
+        static Rule parse(String line, boolean alwaysAnchored) {
+            String p = stripTrailingSpaces(line);
+            if (p.isEmpty() || p.startsWith("#")) return null;
+
+            boolean negated = p.startsWith("!");
+            if (negated) p = p.substring(1);
+            if (p.startsWith("\\#") || p.startsWith("\\!")) p = p.substring(1);
+
+            boolean directoryOnly = p.endsWith("/");
+            while (p.endsWith("/")) p = p.substring(0, p.length() - 1);
+            while (p.startsWith("./")) p = p.substring(2);
+
+            // A slash anywhere but at the end ties the pattern to the ignore file's directory
+            boolean anchored = alwaysAnchored || p.indexOf('/') >= 0;
+            while (p.startsWith("/")) p = p.substring(1);
+            if (p.isEmpty()) return null;
+
+            return new Rule(negated, directoryOnly, anchored, compile(p));
+        }
+
+        private static Predicate<String> compile(String glob) {
+            if (!hasMeta(glob)) {
+                return glob::equals;
+            }
+            if (glob.startsWith("*") && !hasMeta(glob.substring(1)) && glob.indexOf('/') < 0) {
+                String suffix = glob.substring(1);
+                return s -> s.endsWith(suffix) && s.indexOf('/') < 0;
+            }
+            if (glob.endsWith("*") && !hasMeta(glob.substring(0, glob.length() - 1)) && glob.indexOf('/') < 0) {
+                String prefix = glob.substring(0, glob.length() - 1);
+                return s -> s.startsWith(prefix) && s.indexOf('/', prefix.length()) < 0;
+            }
+            Pattern regex = Pattern.compile(toRegex(glob));
+            return s -> regex.matcher(s).matches();
+        }
+
+        private static boolean hasMeta(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '*' || c == '?' || c == '[' || c == '\\') return true;
+            }
+            return false;
+        }
+
+        static String toRegex(String glob) {
+            StringBuilder re = new StringBuilder();
+            int n = glob.length();
+            for (int i = 0; i < n; i++) {
+                char c = glob.charAt(i);
+                if (c == '*') {
+                    boolean doubleStar = i + 1 < n && glob.charAt(i + 1) == '*';
+                    boolean atSegmentStart = i == 0 || glob.charAt(i - 1) == '/';
+                    if (doubleStar && atSegmentStart && (i + 2 == n || glob.charAt(i + 2) == '/')) {
+                        if (i + 2 == n) {
+                            re.append(".*");                // "a/**": everything inside
+                            i += 1;
+                        } else {
+                            re.append("(?:.*/)?");          // "**/b" or "a/**/b": zero or more directories
+                            i += 2;
+                        }
+                    } else {
+                        re.append("[^/]*");
+                        if (doubleStar) i++;
+                    }
+                } else if (c == '?') {
+                    re.append("[^/]");
+                } else if (c == '[') {
+                    int close = glob.indexOf(']', i + 2);
+                    if (close < 0) {
+                        re.append("\\[");
+                    } else {
+                        String body = glob.substring(i + 1, close);
+                        if (body.startsWith("!")) body = "^" + body.substring(1);
+                        re.append('[').append(body.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                        i = close;
+                    }
+                } else if (c == '\\' && i + 1 < n) {
+                    re.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                } else {
+                    re.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return re.toString();
+        }
+
+        private static String stripTrailingSpaces(String line) {
+            int end = line.length();
+            while (end > 0 && (line.charAt(end - 1) == ' ' || line.charAt(end - 1) == '\t' || line.charAt(end - 1) == '\r')) {
+                if (end > 1 && line.charAt(end - 2) == '\\') break;
+                end--;
+            }
+            return line.substring(0, end);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.example.detector.engine;
+
+import com.example.detector.model.DetectionResult;
+import com.example.detector.model.Finding;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Walks a directory tree on a {@link ForkJoinPool}, breadth first and within a {@link ScanBudget}.
+ *
+ * The tree is listed one depth level at a time, all directories of a level in parallel. Each
+ * entry is stat'ed exactly once (no-follow {@link BasicFileAttributes}, the same information
+ * {@code Files.walkFileTree} hands to its visitor), so the file type never has to be looked up
+ * again. A {@link FileRanker} decides which files matter: {@link #PRIORITY} files (manifests and
+ * the like) are handled as soon as their level is listed, {@link #NORMAL} files once the walk is
+ * over, and {@link #SKIP} files not at all. So when the budget runs out, what is left out are
+ * deep, low-value files, and which files make the cut does not depend on thread scheduling.
+ * Listing stops early only when the file or time budget is used up; at most as many deferred
+ * files are kept as could still be handled.
+ *
+ * Regular files are passed to a {@link FileHandler} together with a partial
+ * {@link DetectionResult} that no other thread touches: each batch of files handled by one task
+ * reuses one partial, and after every file its findings are moved out into the file's slot.
+ * Threads therefore never share a result and take no lock. Once the walk is over, the findings
+ * are merged in directory-listing order, which is the order {@code Files.walk} would have
+ * produced, so the outcome matches a sequential walk regardless of the order files were handled
+ * in.
+ *
+ * A {@link PrunePolicy} can exclude directories by name and entries matched by ignore files;
+ * pruned directories are never listed, so their whole subtree costs a single stat.
+ *
+ * A {@link ListingCache} lets a walk reuse the listings of directories whose modification time
+ * has not changed since an earlier walk. Their entries are still stat'ed: editing a file in place
+ * does not touch its directory.
+ */
+@Slf4j
+public class ParallelFileWalker {
+
+    /** Rank of files handed to the handler as soon as they are found. */
+    public static final int PRIORITY = 0;
+    /** Rank of files handed to the handler after the tree has been listed. */
+    public static final int NORMAL = 1;
+    /** Rank of files that are never handed to the handler and do not count against the budget. */
+    public static final int SKIP = -1;
+
+    /**
+     * Callback invoked for every regular file, possibly from several threads at once.
+     * Findings must only be written to the supplied {@code sink}, which is empty on entry and
+     * reused for other files once the call returns.
+     */
+    @FunctionalInterface
+    public interface FileHandler {
+        void handle(Path file, BasicFileAttributes attrs, DetectionResult sink);
+
+        /**
+         * Handle a file with the {@link Ranking#route() route} its ranker chose, so that what
+         * was worked out from the name is not worked out again.
+         */
+        default void handle(Path file, BasicFileAttributes attrs, Object route, DetectionResult sink) {
+            handle(file, attrs, sink);
+        }
+    }
+
+    /**
+     * What a {@link FileRanker} decided about a file from its name.
+     *
+     * @param rank         {@link #PRIORITY} or {@link #NORMAL}
+     * @param readsContent whether handling the file reads its content, so that its size is
+     *                     charged against the byte budget; files handled by name alone cost
+     *                     nothing to read
+     * @param route        anything the ranker wants handed to the handler with the file, or null
+     */
+    public record Ranking(int rank, boolean readsContent, Object route) {
+        static final Ranking PRIORITY_CONTENT = new Ranking(PRIORITY, true, null);
+        static final Ranking NORMAL_CONTENT = new Ranking(NORMAL, true, null);
+    }
+
+    /**
+     * Ranks a file by its name: {@link #PRIORITY}, {@link #NORMAL} or {@link #SKIP}.
+     */
+    @FunctionalInterface
+    public interface FileRanker {
+        int rank(String fileName);
+
+        /**
+         * The full decision about a file, or null to skip it. The walker only calls this, once
+         * per file; by default the file's content counts as read.
+         */
+        default Ranking ranking(String fileName) {
+            int rank = rank(fileName);
+            if (rank == SKIP) return null;
+            return rank == PRIORITY ? Ranking.PRIORITY_CONTENT : Ranking.NORMAL_CONTENT;
+        }
+    }
+
+    /**
+     * Directory listings remembered between walks, keyed by the directory's path relative to the
+     * walk root. Called from several threads at once.
+     */
+    public interface ListingCache {
+        /**
+         * The entry names recorded for a directory, or null if there are none or the directory
+         * was modified since they were recorded.
+         */
+        List<String> listing(String relDir, long modifiedNanos);
+
+        void record(String relDir, long modifiedNanos, List<String> names);
+    }
+
+    private static final FileRanker ALL_NORMAL = name -> NORMAL;
+    /** Files handled per fork-join task. */
+    private static final int HANDLE_BATCH = 8;
+
+    private final ForkJoinPool pool;
+
+    public ParallelFileWalker(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Walk {@code root} without pruning and return the merged findings of all handled files.
+     *
+     * @see #walk(Path, ScanBudget, PrunePolicy, FileRanker, FileHandler)
+     */
+    public WalkResult walk(Path root, int maxFiles, FileHandler handler) throws IOException {
+        return walk(root, ScanBudget.ofFiles(maxFiles), PrunePolicy.NONE, ALL_NORMAL, handler);
+    }
+
+    /**
+     * Walk {@code root}, handing at most {@code maxFiles} files to {@code handler}.
+     *
+     * @see #walk(Path, ScanBudget, PrunePolicy, FileRanker, FileHandler)
+     */
+    public WalkResult walk(Path root, int maxFiles, PrunePolicy prune, FileHandler handler) throws IOException {
+        return walk(root, ScanBudget.ofFiles(maxFiles), prune, ALL_NORMAL, handler);
+    }
+
+    /**
+     * Walk {@code root} and return the merged findings of all handled files.
+     *
+     * @param budget  limits on files, bytes and time; files are admitted in rank, then depth,
+     *                then listing order, and a file whose content would be read but does not fit
+     *                the byte budget is left out without stopping the scan
+     * @param prune   which directories and files to leave out
+     * @param ranker  which files to hand to {@code handler}, and how urgently
+     * @return the merged findings, counters, and which budget ran out (if any)
+     */
+    public WalkResult walk(Path root, ScanBudget budget, PrunePolicy prune, FileRanker ranker,
+                           FileHandler handler) throws IOException {
+        return walk(root, budget, prune, ranker, null, handler);
+    }
+
+    /**
+     * Walk {@code root}, reusing directory listings from {@code listings} where possible.
+     *
+     * @param listings listings of earlier walks of the same root; null to always list
+     * @see #walk(Path, ScanBudget, PrunePolicy, FileRanker, FileHandler)
+     */
+    public WalkResult walk(Path root, ScanBudget budget, PrunePolicy prune, FileRanker ranker,
+                           ListingCache listings, FileHandler handler) throws IOException {
+        Walk walk = new Walk(budget, prune, ranker, listings, handler);
+
+        BasicFileAttributes rootAttrs = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!rootAttrs.isDirectory()) {
+            // A single file was given as the project root
+            DetectionResult single = new DetectionResult();
+            if (rootAttrs.isRegularFile()) walk.listed.incrementAndGet();
+            Ranking ranking = rootAttrs.isRegularFile() ? ranker.ranking(root.getFileName().toString()) : null;
+            if (ranking != null) {
+                FileSlot slot = new FileSlot(root, rootAttrs, ranking);
+                walk.handleAll(pool, walk.admit(List.of(slot)));
+                slot.applyTo(single);
+            }
+            return walk.toResult(single);
+        }
+
+        DirNode top = new DirNode(root, "", rootAttrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), IgnoreRules.NONE);
+        List<FileSlot> deferred = new ArrayList<>();
+        List<DirNode> level = List.of(top);
+        while (!level.isEmpty()) {
+            if (walk.outOfTime()) {
+                walk.exhausted(ScanBudget.TIME);
+                break;
+            }
+            pool.invoke(new ListLevel(level, walk));
+
+            List<FileSlot> priority = new ArrayList<>();
+            List<DirNode> next = new ArrayList<>();
+            for (DirNode node : level) {
+                for (Object entry : node.entries) {
+                    if (entry instanceof DirNode child) {
+                        next.add(child);
+                    } else {
+                        FileSlot slot = (FileSlot) entry;
+                        (slot.ranking.rank() == PRIORITY ? priority : deferred).add(slot);
+                    }
+                }
+            }
+            walk.handleAll(pool, walk.admit(priority));
+
+            if (walk.filesLeft <= 0) {
+                if (!next.isEmpty() || !deferred.isEmpty()) walk.exhausted(ScanBudget.FILES);
+                break;
+            }
+            // Deferred files beyond what is left of the file budget can never be handled; deeper
+            // levels are still listed, because their priority files outrank everything deferred.
+            if (deferred.size() > walk.filesLeft) {
+                deferred.subList(walk.filesLeft, deferred.size()).clear();
+                walk.exhausted(ScanBudget.FILES);
+            }
+            level = next;
+        }
+        deferred.sort(Comparator.comparingInt(slot -> slot.ranking.rank()));
+        walk.handleAll(pool, walk.admit(deferred));
+
+        DetectionResult merged = new DetectionResult();
+        top.mergeInto(merged);
+        return walk.toResult(merged);
+    }
+
+    /**
+     * @param filesListed     regular files found in the walked directories, including those no
+     *                        plugin was interested in
+     * @param filesVisited    files handed to the handler
+     * @param bytesVisited    total size of the files handed to the handler for their content
+     * @param budgetExhausted {@link ScanBudget#FILES}, {@link ScanBudget#BYTES} or
+     *                        {@link ScanBudget#TIME} if the walk was cut short, otherwise null
+     */
+    public record WalkResult(DetectionResult result, int filesListed, int filesVisited, long bytesVisited,
+                             int directoriesPruned, String budgetExhausted) {
+    }
+
+    /** A regular file waiting to be handled; {@link #findings} are set once it has been. */
+    private static final class FileSlot {
+        final Path path;
+        final BasicFileAttributes attrs;
+        final Ranking ranking;
+        List<Finding> findings;
+
+        FileSlot(Path path, BasicFileAttributes attrs, Ranking ranking) {
+            this.path = path;
+            this.attrs = attrs;
+            this.ranking = ranking;
+        }
+
+        long chargedBytes() {
+            return ranking.readsContent() ? attrs.size() : 0;
+        }
+
+        void applyTo(DetectionResult target) {
+            if (findings == null) return;
+            for (Finding f : findings) target.apply(f);
+        }
+    }
+
+    /** A listed directory: its files and subdirectories in listing order. */
+    private static final class DirNode {
+        final Path dir;
+        /** '/'-separated path of {@link #dir} relative to the walk root; "" for the root, null when not tracked. */
+        final String relDir;
+        final long modifiedNanos;
+        final IgnoreRules rules;
+        final List<Object> entries = new ArrayList<>();
+
+        DirNode(Path dir, String relDir, long modifiedNanos, IgnoreRules rules) {
+            this.dir = dir;
+            this.relDir = relDir;
+            this.modifiedNanos = modifiedNanos;
+            this.rules = rules;
+        }
+
+        void mergeInto(DetectionResult target) {
+            for (Object entry : entries) {
+                if (entry instanceof DirNode child) {
+                    child.mergeInto(target);
+                } else {
+                    ((FileSlot) entry).applyTo(target);
+                }
+            }
+        }
+
+        void list(Walk walk) {
+            PrunePolicy prune = walk.prune;
+            List<Path> listed = listEntries(walk.listings);
+            List<Path> ignoreFiles = null;
+            if (prune.usesIgnoreFiles()) {
+                for (Path entry : listed) {
+                    if (prune.isIgnoreFile(entry.getFileName().toString())) {
+                        if (ignoreFiles == null) ignoreFiles = new ArrayList<>();
+                        ignoreFiles.add(entry);
+                    }
+                }
+            }
+            // Ignore files apply to their own directory, so they are read before any sibling is visited
+            IgnoreRules local = ignoreFiles == null ? rules : rules.with(relDir, ignoreFiles);
+
+            int regularFiles = 0;
+            for (Path entry : listed) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attrs.isSymbolicLink()) {
+                        // Like Files.walk: do not descend into linked directories, but do
+                        // report links that resolve to regular files.
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                        if (!attrs.isRegularFile()) continue;
+                    }
+                } catch (IOException e) {
+                    log.debug("Cannot read attributes of {}: {}", entry, e.getMessage());
+                    continue;
+                }
+
+                String name = entry.getFileName().toString();
+                // Relative paths are only needed to evaluate ignore files and to key cached listings
+                String relPath = !walk.tracksPaths ? null : relDir.isEmpty() ? name : relDir + "/" + name;
+                if (attrs.isDirectory()) {
+                    if (prune.isDeniedDirectory(name) || local.isIgnored(relPath, name, true)) {
+                        walk.pruned.incrementAndGet();
+                        continue;
+                    }
+                    long modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+                    entries.add(new DirNode(entry, relPath, modified, local));
+                } else if (attrs.isRegularFile()) {
+                    if (local.isIgnored(relPath, name, false)) continue;
+                    regularFiles++;
+                    Ranking ranking = walk.ranker.ranking(name);
+                    if (ranking != null) entries.add(new FileSlot(entry, attrs, ranking));
+                }
+            }
+            if (regularFiles > 0) walk.listed.addAndGet(regularFiles);
+        }
+
+        private List<Path> listEntries(ListingCache listings) {
+            List<String> cached = listings == null ? null : listings.listing(relDir, modifiedNanos);
+            if (cached != null) {
+                List<Path> listed = new ArrayList<>(cached.size());
+                for (String name : cached) listed.add(dir.resolve(name));
+                return listed;
+            }
+            List<Path> listed = new ArrayList<>();
+            try (DirectoryStream<Path> listing = Files.newDirectoryStream(dir)) {
+                for (Path entry : listing) listed.add(entry);
+            } catch (IOException e) {
+                log.debug("Cannot list directory {}: {}", dir, e.getMessage());
+                return listed;
+            }
+            if (listings != null) {
+                List<String> names = new ArrayList<>(listed.size());
+                for (Path entry : listed) names.add(entry.getFileName().toString());
+                listings.record(relDir, modifiedNanos, names);
+            }
+            return listed;
+        }
+    }
+
+    /** Lists every directory of one depth level, one task per directory. */
+    private static final class ListLevel extends RecursiveAction {
+        private final List<DirNode> level;
+        private final Walk walk;
+
+        ListLevel(List<DirNode> level, Walk walk) {
+            this.level = level;
+            this.walk = walk;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> tasks = new ArrayList<>(level.size());
+            for (DirNode node : level) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        if (walk.outOfTime()) {
+                            walk.exhausted(ScanBudget.TIME);
+                            return;
+                        }
+                        node.list(walk);
+                    }
+                });
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    /** Hands a run of admitted files to the handler, splitting it across workers. */
+    private static final class HandleFiles extends RecursiveAction {
+        private final List<FileSlot> slots;
+        private final int from;
+        private final int to;
+        private final Walk walk;
+
+        HandleFiles(List<FileSlot> slots, int from, int to, Walk walk) {
+            this.slots = slots;
+            this.from = from;
+            this.to = to;
+            this.walk = walk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > HANDLE_BATCH) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new HandleFiles(slots, from, mid, walk), new HandleFiles(slots, mid, to, walk));
+                return;
+            }
+            // One partial for the whole batch; counters are published once per batch too
+            DetectionResult sink = new DetectionResult();
+            int handled = 0;
+            long bytes = 0;
+            for (int i = from; i < to; i++) {
+                if (walk.outOfTime()) {
+                    walk.exhausted(ScanBudget.TIME);
+                    break;
+                }
+                FileSlot slot = slots.get(i);
+                walk.handler.handle(slot.path, slot.attrs, slot.ranking.route(), sink);
+                if (sink.isEmpty()) {
+                    slot.findings = List.of();
+                } else {
+                    slot.findings = sink.findings();
+                    sink.clear();
+                }
+                handled++;
+                bytes += slot.chargedBytes();
+            }
+            walk.files.addAndGet(handled);
+            walk.bytes.addAndGet(bytes);
+        }
+    }
+
+    /**
+     * State of one walk. Admission (the remaining budget) is only touched by the thread that
+     * called {@link #walk}; worker threads update the counters and may record that time ran out.
+     */
+    private static final class Walk {
+        final PrunePolicy prune;
+        final FileRanker ranker;
+        final ListingCache listings;
+        final FileHandler handler;
+        /** Whether directories need their relative path: for ignore files or cached listings. */
+        final boolean tracksPaths;
+        final long deadline;
+        final AtomicReference<String> exhausted = new AtomicReference<>();
+        final AtomicInteger listed = new AtomicInteger();
+        final AtomicInteger files = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicInteger pruned = new AtomicInteger();
+        int filesLeft;
+        long bytesLeft;
+
+        Walk(ScanBudget budget, PrunePolicy prune, FileRanker ranker, ListingCache listings, FileHandler handler) {
+            this.prune = prune;
+            this.ranker = ranker;
+            this.listings = listings;
+            this.tracksPaths = prune.usesIgnoreFiles() || listings != null;
+            this.handler = handler;
+            this.deadline = budget.deadlineNanos(System.nanoTime());
+            this.filesLeft = Math.max(budget.maxFiles(), 0);
+            this.bytesLeft = Math.max(budget.maxBytes(), 0);
+        }
+
+        boolean outOfTime() {
+            return deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0;
+        }
+
+        void exhausted(String reason) {
+            exhausted.compareAndSet(null, reason);
+        }
+
+        /**
+         * The prefix of {@code candidates} that fits the file budget, minus files whose content
+         * does not fit the byte budget; charges both budgets for the admitted files.
+         */
+        List<FileSlot> admit(List<FileSlot> candidates) {
+            List<FileSlot> admitted = new ArrayList<>(Math.min(candidates.size(), filesLeft));
+            for (FileSlot slot : candidates) {
+                if (filesLeft <= 0) {
+                    exhausted(ScanBudget.FILES);
+                    break;
+                }
+                long size = slot.chargedBytes();
+                if (size > bytesLeft) {
+                    exhausted(ScanBudget.BYTES);
+                    continue;
+                }
+                filesLeft--;
+                bytesLeft -= size;
+                admitted.add(slot);
+            }
+            return admitted;
+        }
+
+        void handleAll(ForkJoinPool pool, List<FileSlot> admitted) {
+            if (!admitted.isEmpty()) pool.invoke(new HandleFiles(admitted, 0, admitted.size(), this));
+        }
+
+        WalkResult toResult(DetectionResult merged) {
+            return new WalkResult(merged, listed.get(), files.get(), bytes.get(), pruned.get(), exhausted.get());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.detector.engine;
+
+import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileInterest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Dispatch table compiled once from the {@link FileInterest}s of a set of plugins.
+ * Given a lower-cased file name it returns the plugins interested in that file, in
+ * registration order, using hash lookups on the name and its dot-suffixes plus a short
+ * scan over the declared prefixes.
+ */
+public class PluginDispatcher {
+
+    private final Map<String, List<DetectorPlugin>> byName = new HashMap<>();
+    private final Map<String, List<DetectorPlugin>> byExtension = new HashMap<>();
+    private final List<Map.Entry<String, List<DetectorPlugin>>> byPrefix = new ArrayList<>();
+    private final List<DetectorPlugin> always = new ArrayList<>();
+    private final Map<DetectorPlugin, Integer> order = new IdentityHashMap<>();
+
+    public PluginDispatcher(List<DetectorPlugin> plugins, Predicate<DetectorPlugin> filter) {
+        Map<String, List<DetectorPlugin>> prefixes = new HashMap<>();
+        for (DetectorPlugin plugin : plugins) {
+            if (!filter.test(plugin)) continue;
+            order.put(plugin, order.size());
+
+            FileInterest interest = plugin.interest();
+            if (interest.isAll()) {
+                always.add(plugin);
+                continue;
+            }
+            interest.getNames().forEach(n -> byName.computeIfAbsent(n, k -> new ArrayList<>()).add(plugin));
+            interest.getExtensions().forEach(e -> byExtension.computeIfAbsent(e, k -> new ArrayList<>()).add(plugin));
+            interest.getPrefixes().forEach(p -> prefixes.computeIfAbsent(p, k -> new ArrayList<>()).add(plugin));
+        }
+        byPrefix.addAll(prefixes.entrySet());
+    }
+
+    /**
+     * Plugins interested in a file.
+     *
+     * @param lowerName the file name, already lower-cased with {@code Locale.ROOT}
+     * @return the interested plugins in registration order; never null
+     */
+    public List<DetectorPlugin> pluginsFor(String lowerName) {
+        List<DetectorPlugin> single = null;
+        List<List<DetectorPlugin>> several = null;
+
+        // Collect the candidate lists; in the common case exactly one (or none) matches
+        // and it is returned as-is without allocating.
+        List<DetectorPlugin> named = byName.get(lowerName);
+        if (named != null) single = named;
+
+        if (!byExtension.isEmpty()) {
+            for (int i = lowerName.indexOf('.'); i >= 0; i = lowerName.indexOf('.', i + 1)) {
+                List<DetectorPlugin> ext = byExtension.get(lowerName.substring(i));
+                if (ext != null) {
+                    if (single == null) {
+                        single = ext;
+                    } else {
+                        several = add(several, single, ext);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<DetectorPlugin>> prefix : byPrefix) {
+            if (lowerName.startsWith(prefix.getKey())) {
+                if (single == null) {
+                    single = prefix.getValue();
+                } else {
+                    several = add(several, single, prefix.getValue());
+                }
+            }
+        }
+
+        if (!always.isEmpty()) {
+            if (single == null) {
+                single = always;
+            } else {
+                several = add(several, single, always);
+            }
+        }
+
+        if (several != null) return merge(several);
+        return single != null ? single : List.of();
+    }
+
+    /**
+     * Whether any of the plugins {@link #pluginsFor dispatched} for a file reads its content.
+     */
+    public static boolean readsContent(List<DetectorPlugin> plugins) {
+        for (DetectorPlugin plugin : plugins) {
+            if (plugin.readsContent()) return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return order.isEmpty();
+    }
+
+    private static List<List<DetectorPlugin>> add(List<List<DetectorPlugin>> several,
+                                                  List<DetectorPlugin> first, List<DetectorPlugin> next) {
+        if (several == null) {
+            several = new ArrayList<>(4);
+            several.add(first);
+        }
+        several.add(next);
+        return several;
+    }
+
+    private List<DetectorPlugin> merge(Collection<List<DetectorPlugin>> lists) {
+        List<DetectorPlugin> out = new ArrayList<>();
+        for (List<DetectorPlugin> list : lists) {
+            for (DetectorPlugin plugin : list) {
+                if (!out.contains(plugin)) out.add(plugin);
+            }
+        }
+        out.sort((a, b) -> Integer.compare(order.get(a), order.get(b)));
+        return out;
+    }
+}
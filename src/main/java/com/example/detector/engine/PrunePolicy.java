@@ -0,0 +1,41 @@
+package com.example.detector.engine;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which parts of a project tree {@link ParallelFileWalker} never enters: directories
+ * whose name is on a deny-list (vendored dependencies, build output, VCS metadata) and entries
+ * excluded by ignore files. A pruned directory is skipped as a whole subtree, without listing it.
+ */
+public final class PrunePolicy {
+
+    /** Walks everything. */
+    public static final PrunePolicy NONE = new PrunePolicy(List.of(), List.of());
+
+    private final Set<String> deniedDirectories;
+    private final Set<String> ignoreFileNames;
+
+    /**
+     * @param deniedDirectories directory names that are never entered, compared exactly
+     * @param ignoreFileNames   names of ignore files to honour, e.g. {@code .gitignore}; a
+     *                          {@code .dockerignore} is only honoured in the project root
+     */
+    public PrunePolicy(Collection<String> deniedDirectories, Collection<String> ignoreFileNames) {
+        this.deniedDirectories = Set.copyOf(deniedDirectories);
+        this.ignoreFileNames = Set.copyOf(ignoreFileNames);
+    }
+
+    boolean isDeniedDirectory(String name) {
+        return deniedDirectories.contains(name);
+    }
+
+    boolean isIgnoreFile(String name) {
+        return ignoreFileNames.contains(name);
+    }
+
+    boolean usesIgnoreFiles() {
+        return !ignoreFileNames.isEmpty();
+    }
+}
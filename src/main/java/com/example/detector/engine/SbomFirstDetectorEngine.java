@@ -1,33 +1,106 @@
 package com.example.detector.engine;
 
+import com.example.detector.cache.ContentFindingsCache;
+import com.example.detector.cache.Digests;
+import com.example.detector.cache.IncrementalScanCache;
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.ScanProperties;
+import com.example.detector.metrics.ScanMetrics;
 import com.example.detector.model.DetectionResult;
+import com.example.detector.model.Finding;
 import com.example.detector.detectors.sbom.SbomProcessor;
 import com.example.detector.detectors.sbom.SbomService;
 import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileContext;
+import com.example.detector.spi.FileInterest;
+import com.example.detector.spi.PluginCategory;
 import lombok.extern.slf4j.Slf4j;
 import org.cyclonedx.model.Bom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 @Slf4j
 @Component
 public class SbomFirstDetectorEngine {
+    /**
+     * Manifests, lockfiles and container/IaC definitions: the files most likely to identify a
+     * stack, handed to plugins before anything else so they survive a tight scan budget.
+     */
+    private static final FileInterest HIGH_VALUE = FileInterest.builder()
+            .names("pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts",
+                    "package.json", "requirements.txt", "pyproject.toml", "pipfile", "setup.py",
+                    "go.mod", "cargo.toml", "gemfile",
+                    "package-lock.json", "yarn.lock", "pnpm-lock.yaml", "poetry.lock", "pipfile.lock",
+                    "go.sum", "cargo.lock", "gradle.lockfile", "gemfile.lock")
+            .extensions(".tf")
+            .prefixes("dockerfile")
+            .build();
+
     private final SbomService sbomService;
     private final SbomProcessor sbomProcessor;
-    private final List<DetectorPlugin> plugins;
+    private final ScanProperties scanProperties;
+    private final ParallelFileWalker walker;
+    private final PrunePolicy prunePolicy;
+    private final PluginDispatcher allPlugins;
+    private final PluginDispatcher infrastructurePlugins;
+    private final String registryFingerprint;
+    /** Findings by content digest, shared by all scans of this engine; null when disabled. */
+    private final ContentFindingsCache contentCache;
+    private final ScanMetrics metrics;
+    private final FileContext.Limits fileLimits;
 
     public SbomFirstDetectorEngine(SbomService sbomService, SbomProcessor sbomProcessor, List<DetectorPlugin> plugins) {
+        this(sbomService, sbomProcessor, plugins, new ScanProperties(), null);
+    }
+
+    public SbomFirstDetectorEngine(SbomService sbomService, SbomProcessor sbomProcessor, List<DetectorPlugin> plugins,
+                                   ScanProperties scanProperties, RegistryLoader registryLoader) {
+        this(sbomService, sbomProcessor, plugins, scanProperties, registryLoader, new ScanMetrics());
+    }
+
+    /**
+     * The SBOM service and processor are injected lazily: they (and the CycloneDX classes behind
+     * them) are only created once a scanned project actually has an SBOM.
+     */
+    @Autowired
+    public SbomFirstDetectorEngine(@Lazy SbomService sbomService, @Lazy SbomProcessor sbomProcessor, List<DetectorPlugin> plugins,
+                                   ScanProperties scanProperties, RegistryLoader registryLoader, ScanMetrics metrics) {
         this.sbomService = sbomService;
         this.sbomProcessor = sbomProcessor;
-        this.plugins = plugins;
-        log.info("SbomFirstDetectorEngine initialized with {} plugin(s)", plugins.size());
+        this.scanProperties = scanProperties;
+        this.registryFingerprint = registryLoader != null ? registryLoader.getFingerprint() : "";
+        if (!scanProperties.isContentCache()) {
+            this.contentCache = null;
+        } else if (scanProperties.isContentCacheSpill()) {
+            this.contentCache = ContentFindingsCache.spillingTo(scanProperties.getContentCacheMaxBytes(),
+                    scanProperties.getCacheDir(), registryFingerprint);
+        } else {
+            this.contentCache = new ContentFindingsCache(scanProperties.getContentCacheMaxBytes(), null);
+        }
+        this.metrics = metrics;
+        this.fileLimits = scanProperties.fileLimits();
+        if (contentCache != null) metrics.bindContentCache(contentCache);
+        this.walker = new ParallelFileWalker(new ForkJoinPool(scanProperties.effectiveParallelism()));
+        this.prunePolicy = new PrunePolicy(scanProperties.getPruneDirectories(), scanProperties.getIgnoreFiles());
+        this.allPlugins = new PluginDispatcher(plugins, p -> true);
+        this.infrastructurePlugins = new PluginDispatcher(plugins, p -> p.category() == PluginCategory.INFRASTRUCTURE);
+        log.info("SbomFirstDetectorEngine initialized with {} plugin(s), parallelism {}",
+                plugins.size(), scanProperties.effectiveParallelism());
         for (DetectorPlugin plugin : plugins) {
-            log.info("  - Registered plugin: {}", plugin.getClass().getSimpleName());
+            log.info("  - Registered plugin: {} ({})", plugin.getClass().getSimpleName(), plugin.category());
         }
     }
 
@@ -35,8 +108,10 @@ public class SbomFirstDetectorEngine {
      * Scan a project root with SBOM-first approach.
      */
     public DetectionResult scanProject(Path projectRoot) {
+        long start = System.nanoTime();
         DetectionResult result = new DetectionResult();
         result.projectPath = projectRoot.toAbsolutePath().toString();
+        if (!scanProperties.isFullEvidence()) result.limitEvidence(scanProperties.getEvidenceSamples(), projectRoot);
         log.debug("Starting SBOM-first scan for project: {}", result.projectPath);
 
         try {
@@ -44,15 +119,12 @@ public class SbomFirstDetectorEngine {
             Optional<Path> sbomFile = findSbomFile(projectRoot);
             if (sbomFile.isPresent()) {
                 log.info("Found SBOM file: {}", sbomFile.get().getFileName());
-                Bom bom = sbomService.parseBom(sbomFile.get());
-                if (bom != null) {
-                    log.debug("Successfully parsed SBOM, processing components");
-                    sbomProcessor.processBom(bom, result);
-                    log.debug("Processed SBOM - Languages: {}, Frameworks: {}, Components processed", 
-                              result.languages.size(), result.frameworks.size());
-                } else {
-                    log.warn("Failed to parse SBOM file: {}", sbomFile.get());
-                }
+                String digest = contentCache != null ? Digests.sha256(sbomFile.get()) : null;
+                // Identical SBOMs (e.g. generated from the same lockfile) are processed once per run
+                List<Finding> sbomFindings = digest != null
+                        ? contentCache.findings(digest, "sbom", sbomFile.get(), () -> processSbom(sbomFile.get()))
+                        : processSbom(sbomFile.get());
+                sbomFindings.forEach(result::apply);
             } else {
                 log.debug("No SBOM file found in project root: {}", projectRoot);
             }
@@ -70,56 +142,196 @@ public class SbomFirstDetectorEngine {
             if (shouldRunFullFileDetection) {
                 log.info("SBOM analysis incomplete, running full file-based detection");
                 // Run all plugins
-                runFileBasedDetection(projectRoot, result, plugins, false);
+                runFileBasedDetection(projectRoot, result, allPlugins);
             } else {
                 log.info("SBOM analysis complete, but running infrastructure detection (e.g., Dockerfile)");
                 // Only run infrastructure-related detectors (Dockerfile, etc.)
-                runFileBasedDetection(projectRoot, result, plugins, true);
+                runFileBasedDetection(projectRoot, result, infrastructurePlugins);
             }
 
         } catch (Exception e) {
             log.error("Error during SBOM-first scan, falling back to file-based detection", e);
             // fail-safe: fallback file-scan if SBOM parse failed - run all plugins
-            runFileBasedDetection(projectRoot, result, plugins, false);
+            runFileBasedDetection(projectRoot, result, allPlugins);
         }
 
         log.debug("Scan completed - Languages: {}, Frameworks: {}, Runtimes: {}, Infrastructure: {}", 
                  result.languages.size(), result.frameworks.size(), result.runtimes.size(), result.infrastructure.size());
         
         result.populateFinalResult();
+        metrics.projectScanned(projectRoot, System.nanoTime() - start);
         
         return result;
     }
 
-    private void runFileBasedDetection(Path projectRoot, DetectionResult result, List<DetectorPlugin> plugins, boolean infrastructureOnly) {
-        try (Stream<Path> stream = Files.walk(projectRoot)) {
-            long fileCount = stream.filter(Files::isRegularFile)
-                  .limit(20000)
-                  .peek(p -> {
-                      for (DetectorPlugin plugin : plugins) {
-                          try {
-                              // If infrastructureOnly is true, only run infrastructure-related detectors
-                              if (infrastructureOnly) {
-                                  String pluginName = plugin.getClass().getSimpleName();
-                                  if (pluginName.contains("Dockerfile") || pluginName.contains("Infrastructure")) {
-                                      plugin.inspect(p, projectRoot, result);
-                                  }
-                              } else {
-                                  // Run all plugins
-                                  plugin.inspect(p, projectRoot, result);
-                              }
-                          } catch (Exception e) {
-                              log.debug("Plugin {} failed for file {}: {}", plugin.getClass().getSimpleName(), p, e.getMessage());
-                          }
-                      }
-                  })
-                  .count();
-            log.debug("File-based detection completed - scanned {} files (infrastructureOnly: {})", fileCount, infrastructureOnly);
+    /**
+     * Process an SBOM into a result of its own and return its findings. A streamed SBOM that turns
+     * out malformed or truncated halfway throws, and whatever it yielded until then is dropped with
+     * the scratch result instead of ending up next to the file-based fallback's findings.
+     */
+    private List<Finding> processSbom(Path sbomFile) throws Exception {
+        long start = System.nanoTime();
+        DetectionResult result = new DetectionResult();
+        int components = 0;
+        if (scanProperties.isStreamingSbom()) {
+            components = sbomService.streamBom(sbomFile, sbomProcessor.visitor(result));
+            log.debug("Processed SBOM - Languages: {}, Frameworks: {}, Components processed: {}",
+                      result.languages.size(), result.frameworks.size(), components);
+        } else {
+            Bom bom = sbomService.parseBom(sbomFile);
+            if (bom != null) {
+                log.debug("Successfully parsed SBOM, processing components");
+                components = sbomProcessor.processBom(bom, result);
+                log.debug("Processed SBOM - Languages: {}, Frameworks: {}, Components processed: {}",
+                          result.languages.size(), result.frameworks.size(), components);
+            } else {
+                log.warn("Failed to parse SBOM file: {}", sbomFile);
+            }
+        }
+        metrics.sbomProcessed(System.nanoTime() - start, components, Files.size(sbomFile));
+        return result.findings();
+    }
+
+    private void runFileBasedDetection(Path projectRoot, DetectionResult result, PluginDispatcher dispatcher) {
+        if (dispatcher.isEmpty()) {
+            log.debug("No plugins to run, skipping file-based detection");
+            return;
+        }
+        try {
+            ScanBudget budget = new ScanBudget(scanProperties.getMaxFiles(), scanProperties.getMaxBytes(),
+                    scanProperties.getMaxDuration());
+            // Each file name is lower-cased and dispatched once; the plugins travel with the file
+            ParallelFileWalker.FileRanker ranker = new ParallelFileWalker.FileRanker() {
+                @Override
+                public int rank(String name) {
+                    ParallelFileWalker.Ranking ranking = ranking(name);
+                    return ranking != null ? ranking.rank() : ParallelFileWalker.SKIP;
+                }
+
+                @Override
+                public ParallelFileWalker.Ranking ranking(String name) {
+                    String lowerName = name.toLowerCase(Locale.ROOT);
+                    List<DetectorPlugin> plugins = dispatcher.pluginsFor(lowerName);
+                    if (plugins.isEmpty()) return null;
+                    int rank = HIGH_VALUE.matches(lowerName) ? ParallelFileWalker.PRIORITY : ParallelFileWalker.NORMAL;
+                    return new ParallelFileWalker.Ranking(rank, PluginDispatcher.readsContent(plugins),
+                            new FileRoute(lowerName, plugins));
+                }
+            };
+            IncrementalScanCache cache = scanProperties.isIncrementalCache()
+                    ? IncrementalScanCache.open(scanProperties.getCacheDir(), projectRoot, registryFingerprint,
+                            scanProperties.isCacheContentHash())
+                    : null;
+            ParallelFileWalker.WalkResult walk = walker.walk(projectRoot, budget, prunePolicy, ranker, cache,
+                    new ParallelFileWalker.FileHandler() {
+                        @Override
+                        public void handle(Path file, BasicFileAttributes attrs, DetectionResult sink) {
+                            handle(file, attrs, ranker.ranking(file.getFileName().toString()).route(), sink);
+                        }
+
+                        @Override
+                        public void handle(Path file, BasicFileAttributes attrs, Object route, DetectionResult sink) {
+                            // Only hand the file to plugins that declared interest in it; they share one
+                            // context, so the file is read and parsed once however many of them look at it
+                            FileRoute fileRoute = (FileRoute) route;
+                            FileContext context = new FileContext(file, fileRoute.lowerName(), projectRoot, fileLimits);
+                            try {
+                                if (cache == null && contentCache == null) {
+                                    for (DetectorPlugin plugin : fileRoute.plugins()) {
+                                        inspect(plugin, context, sink);
+                                    }
+                                } else {
+                                    inspectCached(cache, fileRoute.plugins(), context, attrs, sink);
+                                }
+                            } finally {
+                                context.release();
+                            }
+                        }
+                    });
+            if (cache != null) cache.save();
+            metrics.walked(walk);
+            result.merge(walk.result());
+            if (walk.budgetExhausted() != null) {
+                result.budgetExhausted = walk.budgetExhausted();
+                log.info("Scan budget ({}) exhausted for {} - handled {} files, {} bytes",
+                        walk.budgetExhausted(), projectRoot, walk.filesVisited(), walk.bytesVisited());
+            }
+            log.debug("File-based detection completed - scanned {} files ({} bytes), pruned {} directories",
+                    walk.filesVisited(), walk.bytesVisited(), walk.directoriesPruned());
         } catch (Exception e) {
             log.error("Error during file-based detection", e);
         }
     }
 
+    /** A file's lower-cased name and the plugins interested in it, worked out once by the ranker. */
+    private record FileRoute(String lowerName, List<DetectorPlugin> plugins) {
+    }
+
+    private void inspect(DetectorPlugin plugin, FileContext context, DetectionResult sink) {
+        long start = System.nanoTime();
+        Exception failure = null;
+        try {
+            plugin.inspect(context, sink);
+        } catch (Exception e) {
+            failure = e;
+            log.debug("Plugin {} failed for file {}: {}", plugin.getClass().getSimpleName(), context.file(), e.getMessage());
+        }
+        metrics.pluginInspected(plugin, System.nanoTime() - start, failure);
+    }
+
+    private List<Finding> findingsOf(DetectorPlugin plugin, FileContext context) {
+        DetectionResult own = new DetectionResult();
+        inspect(plugin, context, own);
+        return own.findings();
+    }
+
+    /**
+     * Inspect a file through the caches. Each plugin's findings are replayed from the previous
+     * scan if the file is unchanged, else taken from identical content seen earlier in this run
+     * if the plugin is {@link DetectorPlugin#contentAddressable() content-addressable}; only the
+     * remaining plugins run. Every plugin writes to a result of its own, so that its findings can
+     * be cached separately.
+     *
+     * @param cache the incremental store of this project, or null
+     */
+    private void inspectCached(IncrementalScanCache cache, List<DetectorPlugin> plugins, FileContext context,
+                               BasicFileAttributes attrs, DetectionResult sink) {
+        Path file = context.file();
+        Path projectRoot = context.projectRoot();
+        String relPath = cache != null ? projectRoot.relativize(file).toString().replace('\\', '/') : null;
+        IncrementalScanCache.FileRecord cached = cache != null ? cache.lookup(relPath, file, attrs) : null;
+        Map<String, List<Finding>> byPlugin = new LinkedHashMap<>();
+        String digest = null;
+        for (DetectorPlugin plugin : plugins) {
+            String pluginId = plugin.getClass().getName();
+            List<Finding> findings = cached != null ? cached.findings(pluginId) : null;
+            if (findings == null && contentCache != null && plugin.contentAddressable()) {
+                if (digest == null) digest = digest(context);
+                if (digest != null) {
+                    findings = contentCache.findings(digest, pluginId + "/" + context.lowerName(), file,
+                            () -> findingsOf(plugin, context));
+                }
+            }
+            if (findings == null) findings = findingsOf(plugin, context);
+            findings.forEach(sink::apply);
+            byPlugin.put(pluginId, findings);
+        }
+        if (cache != null) cache.record(relPath, file, attrs, cached, byPlugin);
+    }
+
+    /**
+     * SHA-256 of the file, hashed from the content in the context: on a miss the plugins then
+     * inspect the very bytes that were hashed, without reading the file again.
+     */
+    private static String digest(FileContext context) {
+        try {
+            return Digests.sha256(context.bytes());
+        } catch (IOException e) {
+            log.debug("Cannot hash {}: {}", context.file(), e.getMessage());
+            return null;
+        }
+    }
+
     private Optional<Path> findSbomFile(Path root) {
         try (Stream<Path> s = Files.list(root)) {
             Optional<Path> found = s.filter(Files::isRegularFile)
@@ -0,0 +1,33 @@
+package com.example.detector.engine;
+
+import java.time.Duration;
+
+/**
+ * Limits of one file-based scan. Files only count files that are handed to plugins, bytes only
+ * files whose content a plugin reads.
+ *
+ * @param maxFiles    maximum number of files handed to plugins
+ * @param maxBytes    maximum total size of the files whose content plugins read
+ * @param maxDuration wall-clock limit for the walk; zero or negative means none
+ */
+public record ScanBudget(int maxFiles, long maxBytes, Duration maxDuration) {
+
+    /** Reason reported when the file budget ran out. */
+    public static final String FILES = "files";
+    /** Reason reported when the byte budget ran out. */
+    public static final String BYTES = "bytes";
+    /** Reason reported when the wall-clock budget ran out. */
+    public static final String TIME = "time";
+
+    /**
+     * A budget limiting only the number of files.
+     */
+    public static ScanBudget ofFiles(int maxFiles) {
+        return new ScanBudget(maxFiles, Long.MAX_VALUE, Duration.ZERO);
+    }
+
+    long deadlineNanos(long startNanos) {
+        if (maxDuration == null || maxDuration.isZero() || maxDuration.isNegative()) return Long.MAX_VALUE;
+        return startNanos + maxDuration.toNanos();
+    }
+}
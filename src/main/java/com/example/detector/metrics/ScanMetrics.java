@@ -0,0 +1,187 @@
+package com.example.detector.metrics;
+
+import com.example.detector.cache.ContentFindingsCache;
+import com.example.detector.engine.ParallelFileWalker;
+import com.example.detector.spi.DetectorPlugin;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the scans run by this process, recorded into a Micrometer {@link MeterRegistry}:
+ * the registry bean of the application if there is one, otherwise a private
+ * {@link SimpleMeterRegistry}. {@link StatsReport} summarizes them for {@code --stats}.
+ *
+ * All meters are cumulative for the lifetime of the process. A daemon serves many requests,
+ * some at the same time, so it does not answer {@code --stats}: clients asking for statistics
+ * scan by themselves instead.
+ */
+@Component
+public class ScanMetrics {
+
+    public static final String PROJECT_SCAN = "detector.project.scan";
+    public static final String FILES_VISITED = "detector.files.visited";
+    public static final String FILES_DISPATCHED = "detector.files.dispatched";
+    public static final String BYTES_READ = "detector.bytes.read";
+    public static final String PLUGIN_INSPECT = "detector.plugin.inspect";
+    public static final String PLUGIN_ERRORS = "detector.plugin.errors";
+    public static final String SBOM_PARSE = "detector.sbom.parse";
+    public static final String SBOM_COMPONENTS = "detector.sbom.components";
+    public static final String REGISTRY_MATCH = "detector.registry.match";
+    public static final String CONTENT_CACHE_HITS = "detector.cache.content.hits";
+    public static final String CONTENT_CACHE_MISSES = "detector.cache.content.misses";
+
+    /** Slowest projects kept for the report. */
+    static final int SLOWEST_PROJECTS = 10;
+
+    private final MeterRegistry registry;
+    private final Timer projectScan;
+    private final Counter filesVisited;
+    private final Counter filesDispatched;
+    private final Counter bytesRead;
+    private final Timer sbomParse;
+    private final DistributionSummary sbomComponents;
+    private final Timer registryMatch;
+    /** Meters per plugin class, so the hot path does not look them up by name and tags. */
+    private final Map<Class<?>, PluginMeters> plugins = new ConcurrentHashMap<>();
+    private final PriorityQueue<ProjectTime> slowest = new PriorityQueue<>(Comparator.comparingLong(ProjectTime::nanos));
+
+    /**
+     * Metrics in a registry of their own, e.g. for an engine created outside of Spring.
+     */
+    public ScanMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public ScanMetrics(ObjectProvider<MeterRegistry> registry) {
+        this(registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public ScanMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.projectScan = Timer.builder(PROJECT_SCAN).description("Time to scan one project").register(registry);
+        this.filesVisited = Counter.builder(FILES_VISITED)
+                .description("Regular files found while walking projects").register(registry);
+        this.filesDispatched = Counter.builder(FILES_DISPATCHED)
+                .description("Files handed to at least one plugin").register(registry);
+        this.bytesRead = Counter.builder(BYTES_READ).baseUnit("bytes")
+                .description("Size of the files whose content plugins read and of the SBOMs processed").register(registry);
+        this.sbomParse = Timer.builder(SBOM_PARSE)
+                .description("Time to read and classify one SBOM, registry matching included").register(registry);
+        this.sbomComponents = DistributionSummary.builder(SBOM_COMPONENTS)
+                .description("Components per SBOM").register(registry);
+        this.registryMatch = Timer.builder(REGISTRY_MATCH)
+                .description("Time to match one SBOM component against the registry").register(registry);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Record the scan of a project; the slowest ones are kept by path for the report.
+     */
+    public void projectScanned(Path projectRoot, long nanos) {
+        projectScan.record(nanos, TimeUnit.NANOSECONDS);
+        synchronized (slowest) {
+            if (slowest.size() < SLOWEST_PROJECTS || slowest.peek().nanos() < nanos) {
+                slowest.add(new ProjectTime(projectRoot.toString(), nanos));
+                if (slowest.size() > SLOWEST_PROJECTS) slowest.poll();
+            }
+        }
+    }
+
+    /**
+     * Record what a file-based walk found and handed to plugins.
+     */
+    public void walked(ParallelFileWalker.WalkResult walk) {
+        filesVisited.increment(walk.filesListed());
+        filesDispatched.increment(walk.filesVisited());
+        bytesRead.increment(walk.bytesVisited());
+    }
+
+    /**
+     * Record the processing of one SBOM.
+     */
+    public void sbomProcessed(long nanos, int components, long bytes) {
+        sbomParse.record(nanos, TimeUnit.NANOSECONDS);
+        sbomComponents.record(components);
+        bytesRead.increment(bytes);
+    }
+
+    /**
+     * Record one run of a plugin on one file.
+     *
+     * @param failure what the plugin threw, or null
+     */
+    public void pluginInspected(DetectorPlugin plugin, long nanos, Exception failure) {
+        PluginMeters meters = plugins.computeIfAbsent(plugin.getClass(), PluginMeters::new);
+        meters.inspect.record(nanos, TimeUnit.NANOSECONDS);
+        if (failure != null) {
+            Counter.builder(PLUGIN_ERRORS).tag("plugin", meters.name)
+                    .tag("exception", failure.getClass().getSimpleName())
+                    .description("Exceptions thrown by plugins").register(registry).increment();
+        }
+    }
+
+    public Timer getRegistryMatch() {
+        return registryMatch;
+    }
+
+    /**
+     * Report the hits and misses of a content cache.
+     */
+    public void bindContentCache(ContentFindingsCache cache) {
+        FunctionCounter.builder(CONTENT_CACHE_HITS, cache, ContentFindingsCache::getHits)
+                .description("Findings replayed from identical content").register(registry);
+        FunctionCounter.builder(CONTENT_CACHE_MISSES, cache, ContentFindingsCache::getMisses)
+                .description("Content inspected for the first time").register(registry);
+    }
+
+    /**
+     * The slowest projects scanned so far, slowest first.
+     */
+    public List<ProjectTime> slowestProjects() {
+        List<ProjectTime> projects;
+        synchronized (slowest) {
+            projects = new ArrayList<>(slowest);
+        }
+        projects.sort(Comparator.comparingLong(ProjectTime::nanos).reversed());
+        return projects;
+    }
+
+    /** Scan time of one project. */
+    public record ProjectTime(String path, long nanos) {
+        public Duration duration() {
+            return Duration.ofNanos(nanos);
+        }
+    }
+
+    private final class PluginMeters {
+        final String name;
+        final Timer inspect;
+
+        PluginMeters(Class<?> pluginClass) {
+            this.name = pluginClass.getSimpleName();
+            this.inspect = Timer.builder(PLUGIN_INSPECT).tag("plugin", name)
+                    .description("Time a plugin spent inspecting one file").register(registry);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.detector.metrics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of {@link ScanMetrics} printed by {@code --stats}, as a table or serialized as JSON.
+ * Plugins are listed by the total time they took, slowest first.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatsReport(long projects, double projectMillis, List<ProjectStats> slowestProjects,
+                          long filesVisited, long filesDispatched, long bytesRead,
+                          long sboms, double sbomMillis, long sbomComponents,
+                          long registryMatches, double registryMatchMillis,
+                          Long contentCacheHits, Long contentCacheMisses,
+                          List<PluginStats> plugins) {
+
+    /** Scan time of one project. */
+    public record ProjectStats(String path, double millis) {
+    }
+
+    /** Runs, time and failures of one plugin. */
+    public record PluginStats(String plugin, long invocations, long errors, double totalMillis, double meanMicros) {
+    }
+
+    public static StatsReport of(ScanMetrics metrics) {
+        MeterRegistry registry = metrics.getRegistry();
+        Timer projects = registry.get(ScanMetrics.PROJECT_SCAN).timer();
+        Timer sboms = registry.get(ScanMetrics.SBOM_PARSE).timer();
+        DistributionSummary components = registry.get(ScanMetrics.SBOM_COMPONENTS).summary();
+        Timer matches = registry.get(ScanMetrics.REGISTRY_MATCH).timer();
+
+        List<ProjectStats> slowest = new ArrayList<>();
+        for (ScanMetrics.ProjectTime p : metrics.slowestProjects()) {
+            slowest.add(new ProjectStats(p.path(), p.nanos() / 1e6));
+        }
+
+        Map<String, Long> errors = new HashMap<>();
+        for (Counter c : registry.find(ScanMetrics.PLUGIN_ERRORS).counters()) {
+            errors.merge(c.getId().getTag("plugin"), (long) c.count(), Long::sum);
+        }
+        List<PluginStats> plugins = new ArrayList<>();
+        for (Timer t : registry.find(ScanMetrics.PLUGIN_INSPECT).timers()) {
+            String plugin = t.getId().getTag("plugin");
+            plugins.add(new PluginStats(plugin, t.count(), errors.getOrDefault(plugin, 0L),
+                    t.totalTime(TimeUnit.MILLISECONDS), t.mean(TimeUnit.MICROSECONDS)));
+        }
+        plugins.sort(Comparator.comparingDouble(PluginStats::totalMillis).reversed()
+                .thenComparing(PluginStats::plugin));
+
+        FunctionCounter hits = registry.find(ScanMetrics.CONTENT_CACHE_HITS).functionCounter();
+        FunctionCounter misses = registry.find(ScanMetrics.CONTENT_CACHE_MISSES).functionCounter();
+
+        return new StatsReport(projects.count(), projects.totalTime(TimeUnit.MILLISECONDS), slowest,
+                count(registry, ScanMetrics.FILES_VISITED), count(registry, ScanMetrics.FILES_DISPATCHED),
+                count(registry, ScanMetrics.BYTES_READ),
+                sboms.count(), sboms.totalTime(TimeUnit.MILLISECONDS), (long) components.totalAmount(),
+                matches.count(), matches.totalTime(TimeUnit.MILLISECONDS),
+                hits != null ? (long) hits.count() : null, misses != null ? (long) misses.count() : null,
+                plugins);
+    }
+
+    private static long count(MeterRegistry registry, String name) {
+        return (long) registry.get(name).counter().count();
+    }
+
+    /**
+     * The report as a plain-text table.
+     */
+    public String toTable() {
+        StringBuilder out = new StringBuilder();
+        out.append("Scan statistics\n");
+        row(out, "Projects scanned", projects, "%.1f ms total", projectMillis);
+        row(out, "Files visited", filesVisited, "", 0);
+        row(out, "Files dispatched", filesDispatched, "", 0);
+        row(out, "Bytes read", bytesRead, "", 0);
+        row(out, "SBOMs processed", sboms, "%.1f ms total", sbomMillis);
+        row(out, "SBOM components", sbomComponents, "", 0);
+        row(out, "Registry matches", registryMatches, "%.1f ms total", registryMatchMillis);
+        if (contentCacheHits != null) {
+            row(out, "Content cache hits", contentCacheHits, "", 0);
+            row(out, "Content cache misses", contentCacheMisses, "", 0);
+        }
+        if (!plugins.isEmpty()) {
+            out.append('\n').append(String.format(Locale.ROOT, "%-32s %12s %8s %12s %10s%n",
+                    "Plugin", "Invocations", "Errors", "Total ms", "Mean us"));
+            for (PluginStats p : plugins) {
+                out.append(String.format(Locale.ROOT, "%-32s %12d %8d %12.1f %10.1f%n",
+                        p.plugin(), p.invocations(), p.errors(), p.totalMillis(), p.meanMicros()));
+            }
+        }
+        if (!slowestProjects.isEmpty()) {
+            out.append('\n').append(String.format(Locale.ROOT, "%-60s %12s%n", "Slowest projects", "ms"));
+            for (ProjectStats p : slowestProjects) {
+                out.append(String.format(Locale.ROOT, "%-60s %12.1f%n", p.path(), p.millis()));
+            }
+        }
+        return out.toString();
+    }
+
+    private static void row(StringBuilder out, String label, long value, String detailFormat, double detail) {
+        out.append(String.format(Locale.ROOT, "  %-22s %12d", label, value));
+        if (!detailFormat.isEmpty()) out.append("   ").append(String.format(Locale.ROOT, detailFormat, detail));
+        out.append('\n');
+    }
+}
@@ -1,7 +1,21 @@
 package com.example.detector.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.nio.file.Path;
 import java.util.*;
 
+/**
+ * Findings of a scan. Not thread-safe: parallel scans have each thread write to a partial result
+ * of its own and merge the partials once at the end (see ParallelFileWalker), so no two threads
+ * ever touch the same instance. The collections are sorted by name, whatever order findings
+ * arrive in; evidence is kept in the order it was added.
+ *
+ * By default every piece of evidence is kept as reported. Once {@link #limitEvidence} was called,
+ * each technology keeps only its first distinct samples, with paths below the project root made
+ * relative, and {@link #evidenceCounts} tells how much evidence there was in total.
+ */
 public class DetectionResult {
     public String projectPath;
     public Set<String> languages = new TreeSet<>();
@@ -11,25 +25,186 @@ public class DetectionResult {
     public Map<String, List<String>> cloudSdks = new TreeMap<>();
     public Map<String, List<String>> databases = new TreeMap<>();
     public long scannedAt = System.currentTimeMillis();
+    /** Set when the file-based scan was cut short: "files", "bytes" or "time". */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String budgetExhausted;
+    /** Set when the project could not be scanned; the other fields are then empty. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String error;
+    
+    /**
+     * Total evidence per category and technology, for the technologies whose evidence lists only
+     * some samples of it. Duplicates count, as they do in the full evidence.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public Map<String, Map<String, Integer>> evidenceCounts = new TreeMap<>();
     
     public List<NameVersion> finalResult = new ArrayList<>();
 
+    /** Samples kept per technology; zero while all evidence is kept. */
+    private int evidenceLimit;
+    /** The project root as scanned and as absolute path, stripped from evidence. */
+    private String[] rootPrefixes = new String[0];
+
     public void addFramework(String fw, String evidence) {
-        frameworks.computeIfAbsent(fw, k -> new ArrayList<>()).add(evidence);
+        add(frameworks, "frameworks", fw, evidence);
     }
     public void addRuntime(String rt, String evidence) {
-        runtimes.computeIfAbsent(rt, k -> new ArrayList<>()).add(evidence);
+        add(runtimes, "runtimes", rt, evidence);
     }
     public void addInfrastructure(String infra, String evidence) {
-        infrastructure.computeIfAbsent(infra, k -> new ArrayList<>()).add(evidence);
+        add(infrastructure, "infrastructure", infra, evidence);
     }
     public void addCloudSdk(String cloud, String evidence) {
-        cloudSdks.computeIfAbsent(cloud, k -> new ArrayList<>()).add(evidence);
+        add(cloudSdks, "cloudSdks", cloud, evidence);
     }
     public void addDatabase(String db, String evidence) {
-        databases.computeIfAbsent(db, k -> new ArrayList<>()).add(evidence);
+        add(databases, "databases", db, evidence);
     }
-    
+
+    /**
+     * Keep at most {@code samples} distinct pieces of evidence per technology from now on, counting
+     * the rest in {@link #evidenceCounts}. Evidence starting with a path below {@code projectRoot}
+     * is made relative to it, and kept evidence is interned, since the same strings (SBOM
+     * components, manifest names) recur across the projects of a run.
+     */
+    public void limitEvidence(int samples, Path projectRoot) {
+        if (samples < 1) throw new IllegalArgumentException("At least one evidence sample must be kept: " + samples);
+        evidenceLimit = samples;
+        String given = projectRoot.toString();
+        String absolute = projectRoot.toAbsolutePath().toString();
+        rootPrefixes = given.isEmpty() || given.equals(absolute) ? new String[]{absolute} : new String[]{absolute, given};
+    }
+
+    private void add(Map<String, List<String>> category, String name, String key, String evidence) {
+        List<String> samples = category.computeIfAbsent(key, k -> new ArrayList<>());
+        if (evidenceLimit == 0) {
+            samples.add(evidence);
+            return;
+        }
+        evidence = relativize(evidence);
+        Map<String, Integer> counts = evidenceCounts.get(name);
+        Integer total = counts != null ? counts.get(key) : null;
+        if (samples.size() < evidenceLimit && !samples.contains(evidence)) {
+            samples.add(evidence != null ? evidence.intern() : null);
+            if (total != null) counts.put(key, total + 1);
+        } else {
+            evidenceCounts.computeIfAbsent(name, k -> new TreeMap<>())
+                    .put(key, (total != null ? total : samples.size()) + 1);
+        }
+    }
+
+    private String relativize(String evidence) {
+        if (evidence == null) return null;
+        for (String prefix : rootPrefixes) {
+            int n = prefix.length();
+            if (evidence.length() > n + 1 && evidence.startsWith(prefix)
+                    && (evidence.charAt(n) == '/' || evidence.charAt(n) == '\\')) {
+                return evidence.substring(n + 1);
+            }
+        }
+        return evidence;
+    }
+
+    /**
+     * Appends all findings of another (partial) result to this one.
+     * Evidence is appended after the evidence already present, so merging partials
+     * in traversal order yields the same result as a single sequential pass.
+     */
+    public void merge(DetectionResult other) {
+        if (other == null) return;
+        languages.addAll(other.languages);
+        mergeInto(frameworks, "frameworks", other.frameworks, other.evidenceCounts);
+        mergeInto(runtimes, "runtimes", other.runtimes, other.evidenceCounts);
+        mergeInto(infrastructure, "infrastructure", other.infrastructure, other.evidenceCounts);
+        mergeInto(cloudSdks, "cloudSdks", other.cloudSdks, other.evidenceCounts);
+        mergeInto(databases, "databases", other.databases, other.evidenceCounts);
+        if (budgetExhausted == null) budgetExhausted = other.budgetExhausted;
+    }
+
+    /**
+     * Whether no finding has been added.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return languages.isEmpty() && frameworks.isEmpty() && runtimes.isEmpty() && infrastructure.isEmpty()
+                && cloudSdks.isEmpty() && databases.isEmpty();
+    }
+
+    /**
+     * Remove all findings, so that the instance can collect those of the next file.
+     */
+    public void clear() {
+        languages.clear();
+        frameworks.clear();
+        runtimes.clear();
+        infrastructure.clear();
+        cloudSdks.clear();
+        databases.clear();
+        evidenceCounts.clear();
+    }
+
+    /**
+     * All findings of this result, category by category, in the order they were added. Of a
+     * result with {@linkplain #limitEvidence limited evidence}, only the samples.
+     */
+    public List<Finding> findings() {
+        List<Finding> out = new ArrayList<>();
+        for (String lang : languages) {
+            out.add(new Finding(Finding.LANGUAGE, lang, null));
+        }
+        flatten(Finding.FRAMEWORK, frameworks, out);
+        flatten(Finding.RUNTIME, runtimes, out);
+        flatten(Finding.INFRASTRUCTURE, infrastructure, out);
+        flatten(Finding.CLOUD_SDK, cloudSdks, out);
+        flatten(Finding.DATABASE, databases, out);
+        return out;
+    }
+
+    /**
+     * Add a finding previously taken from {@link #findings()}.
+     */
+    public void apply(Finding finding) {
+        switch (finding.category()) {
+            case Finding.LANGUAGE -> languages.add(finding.key());
+            case Finding.FRAMEWORK -> addFramework(finding.key(), finding.evidence());
+            case Finding.RUNTIME -> addRuntime(finding.key(), finding.evidence());
+            case Finding.INFRASTRUCTURE -> addInfrastructure(finding.key(), finding.evidence());
+            case Finding.CLOUD_SDK -> addCloudSdk(finding.key(), finding.evidence());
+            case Finding.DATABASE -> addDatabase(finding.key(), finding.evidence());
+            default -> throw new IllegalArgumentException("Unknown finding category: " + finding.category());
+        }
+    }
+
+    private static void flatten(String category, Map<String, List<String>> source, List<Finding> out) {
+        for (Map.Entry<String, List<String>> e : source.entrySet()) {
+            for (String evidence : e.getValue()) {
+                out.add(new Finding(category, e.getKey(), evidence));
+            }
+        }
+    }
+
+    private void mergeInto(Map<String, List<String>> target, String name, Map<String, List<String>> source,
+                           Map<String, Map<String, Integer>> sourceCounts) {
+        Map<String, Integer> otherCounts = sourceCounts.getOrDefault(name, Map.of());
+        for (Map.Entry<String, List<String>> e : source.entrySet()) {
+            if (evidenceLimit == 0 && otherCounts.isEmpty()) {
+                target.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).addAll(e.getValue());
+                continue;
+            }
+            for (String evidence : e.getValue()) {
+                add(target, name, e.getKey(), evidence);
+            }
+            // Evidence the other result only counted
+            int uncounted = otherCounts.getOrDefault(e.getKey(), e.getValue().size()) - e.getValue().size();
+            if (uncounted > 0) {
+                List<String> samples = target.get(e.getKey());
+                evidenceCounts.computeIfAbsent(name, k -> new TreeMap<>())
+                        .merge(e.getKey(), samples.size() + uncounted, (total, more) -> total + uncounted);
+            }
+        }
+    }
+
     public void populateFinalResult() {
         Set<NameVersion> unique = new LinkedHashSet<>();
         
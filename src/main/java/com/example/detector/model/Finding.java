@@ -0,0 +1,19 @@
+package com.example.detector.model;
+
+/**
+ * A single entry of a {@link DetectionResult}, in a form that can be stored and replayed:
+ * one language, or one technology key with the evidence that produced it.
+ *
+ * @param category one of the category constants below
+ * @param key      language name or technology key
+ * @param evidence evidence string; null for languages
+ */
+public record Finding(String category, String key, String evidence) {
+
+    public static final String LANGUAGE = "language";
+    public static final String FRAMEWORK = "framework";
+    public static final String RUNTIME = "runtime";
+    public static final String INFRASTRUCTURE = "infrastructure";
+    public static final String CLOUD_SDK = "cloudSdk";
+    public static final String DATABASE = "database";
+}
@@ -8,10 +8,56 @@ public interface DetectorPlugin {
     /**
      * Inspect a file and update DetectionResult with findings (language/framework/runtime).
      * Implementations should be defensive and not throw.
+     * The engine only calls this for files matching {@link #interest()}.
      *
      * @param file the file being inspected
      * @param projectRoot root path of the scanned project
      * @param result the aggregator to update
      */
     void inspect(Path file, Path projectRoot, DetectionResult result);
+
+    /**
+     * Inspect a file through the context shared by all plugins interested in it, so that its
+     * content is read and parsed once. This is what the engine calls; plugins that read the
+     * file should override it and take the content from the context.
+     *
+     * @param context the file being inspected
+     * @param result the aggregator to update
+     */
+    default void inspect(FileContext context, DetectionResult result) {
+        inspect(context.file(), context.projectRoot(), result);
+    }
+
+    /**
+     * Files this plugin wants to inspect. Defaults to every file.
+     */
+    default FileInterest interest() {
+        return FileInterest.ALL;
+    }
+
+    /**
+     * Category of this plugin. Only {@link PluginCategory#INFRASTRUCTURE} plugins run
+     * when an SBOM already provided languages and frameworks.
+     */
+    default PluginCategory category() {
+        return PluginCategory.GENERAL;
+    }
+
+    /**
+     * Whether this plugin reads the content of the files it inspects. Files only inspected by
+     * plugins that go by the name alone are not charged against the scan's byte budget.
+     */
+    default boolean readsContent() {
+        return true;
+    }
+
+    /**
+     * Whether the findings for a file follow from its name and content alone, apart from
+     * evidence quoting the file's path. The engine then inspects identical files once and
+     * replays the findings for every copy. Plugins that look at other files, or whose work is
+     * cheaper than hashing the file, should leave this off.
+     */
+    default boolean contentAddressable() {
+        return false;
+    }
 }
@@ -0,0 +1,313 @@
+package com.example.detector.spi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One file as seen by the plugins interested in it. The content and what is parsed from it are
+ * read on first use and kept until {@link #release()}, so a {@code pom.xml} inspected by three
+ * plugins is read once and parsed by Maven once.
+ *
+ * Reading is bounded by {@link Limits}: the first block of the file is read into a buffer reused
+ * by all files of the thread, and a file larger than the size cap or whose first block looks
+ * binary is not read any further; asking for its content throws {@link UnreadableFileException}.
+ * Large text can be scanned through {@link #buffer()} or {@link #chars()} from a memory mapping,
+ * without copying it onto the heap.
+ *
+ * A parse failure is kept as well and thrown again to every plugin asking for the same form.
+ * A context belongs to the thread handling the file and is not safe for concurrent use.
+ */
+public final class FileContext {
+
+    /** Size of the first block, which is sniffed and, for small files, is the whole content. */
+    static final int BLOCK_SIZE = 8192;
+
+    /** First-block buffers, one per thread, reused for every file that thread reads. */
+    private static final ThreadLocal<ByteBuffer> BLOCKS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BLOCK_SIZE));
+
+    /** Leading bytes of common binary formats that contain no NUL byte early on. */
+    private static final byte[][] BINARY_MAGIC = {
+            {(byte) 0x89, 'P', 'N', 'G'},
+            {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF},
+            {'G', 'I', 'F', '8'},
+            {'%', 'P', 'D', 'F'},
+            {'P', 'K', 3, 4},
+            {0x1F, (byte) 0x8B},
+            {'B', 'Z', 'h'},
+            {(byte) 0xFD, '7', 'z', 'X', 'Z'},
+            {0x7F, 'E', 'L', 'F'},
+            {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE},
+    };
+
+    /**
+     * How much of a file plugins may read.
+     *
+     * @param maxFileSize  largest file whose content may be read
+     * @param mapThreshold files at least this large are memory-mapped by {@link #buffer()}
+     */
+    public record Limits(long maxFileSize, long mapThreshold) {
+        public static final Limits DEFAULT = new Limits(8L * 1024 * 1024, 1024 * 1024);
+    }
+
+    /**
+     * Parses a file into some form, memoized per context. Parsers are compared by identity, so
+     * plugins sharing a form should share the parser instance, typically a constant.
+     */
+    @FunctionalInterface
+    public interface Parser<T> {
+        T parse(FileContext context) throws Exception;
+    }
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    /** The Maven model of a {@code pom.xml}; the encoding is taken from the XML declaration. */
+    public static final Parser<Model> MAVEN_MODEL =
+            context -> new MavenXpp3Reader().read(new ByteArrayInputStream(context.bytes()));
+
+    /** The file parsed as a JSON tree. */
+    public static final Parser<JsonNode> JSON = context -> JSON_MAPPER.readTree(context.bytes());
+
+    private final Path file;
+    private final Path projectRoot;
+    private final Limits limits;
+    private String lowerName;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private String text;
+    private Map<Parser<?>, Object> parsed;
+    /** Why the content cannot be read, once found out; kept across {@link #release()}. */
+    private UnreadableFileException unreadable;
+
+    public FileContext(Path file, Path projectRoot) {
+        this(file, projectRoot, Limits.DEFAULT);
+    }
+
+    public FileContext(Path file, Path projectRoot, Limits limits) {
+        this(file, null, projectRoot, limits);
+    }
+
+    /**
+     * @param lowerName the file name already lower-cased with {@code Locale.ROOT}, e.g. by the
+     *                  dispatch that chose the plugins, or null to derive it on first use
+     */
+    public FileContext(Path file, String lowerName, Path projectRoot, Limits limits) {
+        this.file = file;
+        this.lowerName = lowerName;
+        this.projectRoot = projectRoot;
+        this.limits = limits;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public Path projectRoot() {
+        return projectRoot;
+    }
+
+    /** The lower-cased file name, as matched by {@link FileInterest}. */
+    public String lowerName() {
+        if (lowerName == null) lowerName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return lowerName;
+    }
+
+    /**
+     * The raw content, copied onto the heap.
+     *
+     * @throws UnreadableFileException if the file is too large or binary
+     */
+    public byte[] bytes() throws IOException {
+        if (bytes == null) bytes = read(false).array;
+        return bytes;
+    }
+
+    /**
+     * The content as a read-only buffer: memory-mapped for files of at least
+     * {@link Limits#mapThreshold()}, otherwise wrapping {@link #bytes()}. A mapping is released
+     * when it is no longer referenced, not when the context is released.
+     *
+     * @throws UnreadableFileException if the file is too large or binary
+     */
+    public ByteBuffer buffer() throws IOException {
+        if (buffer == null) {
+            if (bytes != null) {
+                buffer = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+            } else {
+                Content content = read(true);
+                if (content.mapped != null) {
+                    buffer = content.mapped;
+                } else {
+                    bytes = content.array;
+                    buffer = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+                }
+            }
+        }
+        return buffer.duplicate();
+    }
+
+    /**
+     * The content as characters, one per byte (ISO-8859-1), over {@link #buffer()}. Enough to
+     * match ASCII syntax such as {@code FROM} lines or XML tags with a regular expression
+     * without decoding or copying the file; use {@link #text()} where non-ASCII text matters.
+     */
+    public CharSequence chars() throws IOException {
+        ByteBuffer content = buffer();
+        return new ByteChars(content, 0, content.remaining());
+    }
+
+    /**
+     * The content as a stream, for plugins that parse in constant memory. Unlike the other
+     * accessors this is not bound by {@link Limits}: streaming a large file costs time, not
+     * memory. Content already read into the context is served from there.
+     */
+    public InputStream stream() throws IOException {
+        if (bytes != null) return new ByteArrayInputStream(bytes);
+        return Files.newInputStream(file);
+    }
+
+    /** The content decoded as UTF-8; malformed input is replaced rather than rejected. */
+    public String text() throws IOException {
+        if (text == null) text = new String(bytes(), StandardCharsets.UTF_8);
+        return text;
+    }
+
+    public Model mavenModel() throws Exception {
+        return parsed(MAVEN_MODEL);
+    }
+
+    public JsonNode json() throws Exception {
+        return parsed(JSON);
+    }
+
+    /**
+     * The file in the form produced by {@code parser}, parsing it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T parsed(Parser<T> parser) throws Exception {
+        if (parsed == null) parsed = new IdentityHashMap<>(4);
+        Object value = parsed.get(parser);
+        if (value == null && !parsed.containsKey(parser)) {
+            try {
+                value = parser.parse(this);
+            } catch (Exception e) {
+                value = new Failure(e);
+            }
+            parsed.put(parser, value);
+        }
+        if (value instanceof Failure failure) throw failure.cause;
+        return (T) value;
+    }
+
+    /**
+     * Drop the content and everything parsed from it, once all plugins are done with the file.
+     */
+    public void release() {
+        bytes = null;
+        buffer = null;
+        text = null;
+        parsed = null;
+    }
+
+    /**
+     * Read the file within the limits: sniff the first block, then copy the rest or, if
+     * {@code mapLarge} and the file is large enough, map it.
+     */
+    private Content read(boolean mapLarge) throws IOException {
+        if (unreadable != null) throw unreadable;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > limits.maxFileSize()) {
+                throw unreadable = new UnreadableFileException(file, "larger than " + limits.maxFileSize() + " bytes");
+            }
+            ByteBuffer block = BLOCKS.get().clear();
+            while (block.hasRemaining() && channel.read(block) > 0) {
+                // fill the first block, or all of a smaller file
+            }
+            block.flip();
+            if (looksBinary(block)) throw unreadable = new UnreadableFileException(file, "binary content");
+
+            if (mapLarge && size >= limits.mapThreshold() && size > block.limit()) {
+                return new Content(null, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            // Bounded by the size seen above, should the file grow while it is read
+            byte[] array = new byte[(int) Math.max(size, block.limit())];
+            int read = block.limit();
+            block.get(array, 0, read);
+            ByteBuffer rest = ByteBuffer.wrap(array);
+            rest.position(read);
+            while (rest.hasRemaining()) {
+                int n = channel.read(rest);
+                if (n < 0) break;
+            }
+            return new Content(rest.position() == array.length ? array : Arrays.copyOf(array, rest.position()), null);
+        }
+    }
+
+    /**
+     * Whether a first block is binary: a NUL byte, or the signature of a common binary format.
+     */
+    static boolean looksBinary(ByteBuffer block) {
+        int limit = block.limit();
+        for (byte[] magic : BINARY_MAGIC) {
+            if (limit >= magic.length && startsWith(block, magic)) return true;
+        }
+        for (int i = 0; i < limit; i++) {
+            if (block.get(i) == 0) return true;
+        }
+        return false;
+    }
+
+    private static boolean startsWith(ByteBuffer block, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (block.get(i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private record Content(byte[] array, ByteBuffer mapped) {
+    }
+
+    private record Failure(Exception cause) {
+    }
+
+    /** Bytes of a buffer as ISO-8859-1 characters, without copying. */
+    private record ByteChars(ByteBuffer buffer, int start, int end) implements CharSequence {
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new ByteChars(buffer, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[end - start];
+            buffer.get(start, copy);
+            return new String(copy, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.detector.spi;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Declares which files a {@link DetectorPlugin} wants to see. The engine compiles the
+ * interests of all plugins into one dispatch table, so a plugin is only invoked for files
+ * it declared here. All values are matched against the lower-cased file name.
+ *
+ * <ul>
+ *   <li>names - exact file names, e.g. {@code pom.xml}</li>
+ *   <li>extensions - file name suffixes starting with a dot, e.g. {@code .tf}</li>
+ *   <li>prefixes - file name prefixes, e.g. {@code dockerfile}</li>
+ * </ul>
+ */
+public final class FileInterest {
+
+    /** Matches every file; the default for plugins that do not declare an interest. */
+    public static final FileInterest ALL = new FileInterest(Set.of(), Set.of(), Set.of(), true);
+
+    private final Set<String> names;
+    private final Set<String> extensions;
+    private final Set<String> prefixes;
+    private final boolean all;
+
+    private FileInterest(Set<String> names, Set<String> extensions, Set<String> prefixes, boolean all) {
+        this.names = names;
+        this.extensions = extensions;
+        this.prefixes = prefixes;
+        this.all = all;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    public Set<String> getExtensions() {
+        return extensions;
+    }
+
+    public Set<String> getPrefixes() {
+        return prefixes;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Whether this interest covers a file, given its lower-cased name.
+     */
+    public boolean matches(String lowerName) {
+        if (all || names.contains(lowerName)) return true;
+        for (String extension : extensions) {
+            if (lowerName.endsWith(extension)) return true;
+        }
+        for (String prefix : prefixes) {
+            if (lowerName.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    public static final class Builder {
+        private final Set<String> names = new LinkedHashSet<>();
+        private final Set<String> extensions = new LinkedHashSet<>();
+        private final Set<String> prefixes = new LinkedHashSet<>();
+
+        private Builder() {
+        }
+
+        public Builder names(String... values) {
+            add(names, values);
+            return this;
+        }
+
+        public Builder extensions(String... values) {
+            for (String value : values) {
+                if (!value.startsWith(".")) {
+                    throw new IllegalArgumentException("Extension must start with '.': " + value);
+                }
+            }
+            add(extensions, values);
+            return this;
+        }
+
+        public Builder prefixes(String... values) {
+            add(prefixes, values);
+            return this;
+        }
+
+        public FileInterest build() {
+            return new FileInterest(Set.copyOf(names), Set.copyOf(extensions), Set.copyOf(prefixes), false);
+        }
+
+        private static void add(Set<String> target, String[] values) {
+            Arrays.stream(values).map(v -> v.toLowerCase(Locale.ROOT)).forEach(target::add);
+        }
+    }
+}
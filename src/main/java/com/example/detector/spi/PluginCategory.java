@@ -0,0 +1,12 @@
+package com.example.detector.spi;
+
+/**
+ * Coarse grouping of detector plugins, used by the engine to decide which plugins
+ * still need to run once an SBOM has already answered the language/framework question.
+ */
+public enum PluginCategory {
+    /** Language, framework and runtime detectors. */
+    GENERAL,
+    /** Detectors for infrastructure that an SBOM usually does not describe (e.g. Dockerfiles). */
+    INFRASTRUCTURE
+}
@@ -0,0 +1,22 @@
+package com.example.detector.spi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Thrown by {@link FileContext} for a file whose content plugins may not read: one larger than
+ * the size cap, or one that looks binary.
+ */
+public class UnreadableFileException extends IOException {
+
+    private final Path file;
+
+    public UnreadableFileException(Path file, String reason) {
+        super(file + ": " + reason);
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.detector.cache;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.ScanProperties;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomService;
+import com.example.detector.engine.SbomFirstDetectorEngine;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.model.Finding;
+import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileInterest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ContentFindingsCache: eviction, spilling and sharing across projects.
+ */
+@DisplayName("ContentFindingsCache Tests")
+class ContentFindingsCacheTest {
+
+    @TempDir
+    Path temp;
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    private List<Finding> compute(Path file) {
+        computed.incrementAndGet();
+        return List.of(new Finding(Finding.LANGUAGE, "Java", null),
+            new Finding(Finding.RUNTIME, "JDK", file + " -> 17"));
+    }
+
+    @Test
+    @DisplayName("Should compute identical content once and fill in each file's path")
+    void testSharesIdenticalContent() {
+        ContentFindingsCache cache = new ContentFindingsCache(1 << 20, null);
+        Path a = temp.resolve("a/pom.xml");
+        Path b = temp.resolve("b/pom.xml");
+
+        cache.findings("d1", "jdk/pom.xml", a, () -> compute(a));
+        List<Finding> replayed = cache.findings("d1", "jdk/pom.xml", b, () -> compute(b));
+
+        assertEquals(1, computed.get());
+        assertEquals(b + " -> 17", replayed.get(1).evidence(), "Evidence should quote the replayed file");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.findings("d1", "other/pom.xml", a, () -> compute(a));
+        assertEquals(2, computed.get(), "Another scope must not share findings");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries and read spilled ones back")
+    void testEvictionAndSpill() {
+        Path file = temp.resolve("pom.xml");
+        ContentFindingsCache dropping = new ContentFindingsCache(700, null);
+        for (String digest : List.of("d1", "d2", "d3", "d1")) {
+            dropping.findings(digest, "jdk", file, () -> compute(file));
+        }
+        assertEquals(4, computed.get(), "d1 should have been evicted before its second use");
+
+        computed.set(0);
+        ContentFindingsCache spilling = new ContentFindingsCache(700, temp.resolve("spill"));
+        for (String digest : List.of("d1", "d2", "d3", "d1")) {
+            spilling.findings(digest, "jdk", file, () -> compute(file));
+        }
+        assertEquals(3, computed.get(), "d1 should come back from the spill directory");
+    }
+
+    @Test
+    @DisplayName("Should inspect identical manifests once across projects")
+    void testEngineSharesAcrossProjects() throws IOException {
+        AtomicInteger inspections = new AtomicInteger();
+        DetectorPlugin plugin = new DetectorPlugin() {
+            @Override
+            public void inspect(Path file, Path projectRoot, DetectionResult result) {
+                inspections.incrementAndGet();
+                result.languages.add("Java");
+                result.addRuntime("JDK", file + " -> 17");
+            }
+
+            @Override
+            public FileInterest interest() {
+                return FileInterest.builder().names("pom.xml").build();
+            }
+
+            @Override
+            public boolean contentAddressable() {
+                return true;
+            }
+        };
+        for (String project : List.of("one", "two")) {
+            Files.createDirectories(temp.resolve(project));
+            Files.writeString(temp.resolve(project).resolve("pom.xml"), "<project/>");
+        }
+        RegistryLoader registryLoader = new RegistryLoader();
+        // Absolute paths in the evidence show whose path the replayed findings carry
+        ScanProperties properties = new ScanProperties();
+        properties.setFullEvidence(true);
+        SbomFirstDetectorEngine engine = new SbomFirstDetectorEngine(new SbomService(),
+            new SbomProcessor(new RegistryMatcher(registryLoader)), List.of(plugin), properties, registryLoader);
+
+        DetectionResult one = engine.scanProject(temp.resolve("one"));
+        DetectionResult two = engine.scanProject(temp.resolve("two"));
+
+        assertEquals(1, inspections.get());
+        assertEquals(List.of(temp.resolve("two/pom.xml") + " -> 17"), two.runtimes.get("JDK"));
+        assertEquals(one.languages, two.languages);
+    }
+
+    @Test
+    @DisplayName("Should drop a truncated SBOM's partial findings with or without the cache")
+    void testTruncatedSbomLeavesNothingBehind() throws IOException {
+        String sbom = Files.readString(Path.of("src/test/resources/sbom/sbom.json"));
+        Path project = Files.createDirectories(temp.resolve("project"));
+        // Cut off halfway through the components, after the stream has already matched some
+        Files.writeString(project.resolve("sbom.json"), sbom.substring(0, sbom.length() * 3 / 5));
+
+        for (boolean cached : List.of(false, true)) {
+            RegistryLoader registryLoader = new RegistryLoader();
+            ScanProperties properties = new ScanProperties();
+            properties.setStreamingSbom(true);
+            properties.setContentCache(cached);
+            SbomFirstDetectorEngine engine = new SbomFirstDetectorEngine(new SbomService(),
+                new SbomProcessor(new RegistryMatcher(registryLoader)), List.of(), properties, registryLoader);
+
+            DetectionResult result = engine.scanProject(project);
+
+            assertTrue(result.frameworks.isEmpty(), "content cache " + cached + ": " + result.frameworks);
+            assertTrue(result.languages.isEmpty(), "content cache " + cached + ": " + result.languages);
+        }
+    }
+}
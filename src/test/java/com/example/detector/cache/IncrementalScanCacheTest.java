@@ -0,0 +1,141 @@
+package com.example.detector.cache;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.ScanProperties;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomService;
+import com.example.detector.engine.SbomFirstDetectorEngine;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileInterest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for IncrementalScanCache, driven through the engine with a counting plugin.
+ */
+@DisplayName("IncrementalScanCache Tests")
+class IncrementalScanCacheTest {
+
+    @TempDir
+    Path temp;
+
+    private Path project;
+    private Path cacheDir;
+    private RegistryLoader registryLoader;
+    private final AtomicInteger inspections = new AtomicInteger();
+
+    /** Reports the first line of every {@code .stack} file as a framework. */
+    private final DetectorPlugin plugin = new DetectorPlugin() {
+        @Override
+        public void inspect(Path file, Path projectRoot, DetectionResult result) {
+            inspections.incrementAndGet();
+            try {
+                result.languages.add("Java");
+                result.addFramework(Files.readAllLines(file).get(0), file.getFileName().toString());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public FileInterest interest() {
+            return FileInterest.builder().extensions(".stack").build();
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        project = temp.resolve("project");
+        cacheDir = temp.resolve("cache");
+        Files.createDirectories(project.resolve("a/b"));
+        Files.writeString(project.resolve("root.stack"), "spring-boot\n");
+        Files.writeString(project.resolve("a/b/deep.stack"), "react\n");
+        registryLoader = new RegistryLoader();
+    }
+
+    private SbomFirstDetectorEngine engine(boolean contentHash) {
+        ScanProperties props = new ScanProperties();
+        props.setIncrementalCache(true);
+        props.setCacheDir(cacheDir);
+        props.setCacheContentHash(contentHash);
+        SbomProcessor processor = new SbomProcessor(new RegistryMatcher(registryLoader));
+        return new SbomFirstDetectorEngine(new SbomService(), processor, List.of(plugin), props, registryLoader);
+    }
+
+    @Test
+    @DisplayName("Should replay findings of unchanged files and re-inspect changed ones")
+    void testReplaysUnchangedFiles() throws IOException {
+        SbomFirstDetectorEngine engine = engine(false);
+
+        DetectionResult first = engine.scanProject(project);
+        assertEquals(2, inspections.get());
+
+        DetectionResult second = engine.scanProject(project);
+        assertEquals(2, inspections.get(), "Unchanged files should not be inspected again");
+        assertEquals(first.languages, second.languages);
+        assertEquals(first.frameworks, second.frameworks);
+
+        Path deep = project.resolve("a/b/deep.stack");
+        Files.writeString(deep, "angular\n");
+        DetectionResult third = engine.scanProject(project);
+        assertEquals(3, inspections.get(), "Only the changed file should be inspected");
+        assertTrue(third.frameworks.containsKey("angular"));
+        assertFalse(third.frameworks.containsKey("react"));
+        assertTrue(third.frameworks.containsKey("spring-boot"));
+    }
+
+    @Test
+    @DisplayName("Should pick up files added to a directory")
+    void testNewFiles() throws IOException {
+        SbomFirstDetectorEngine engine = engine(false);
+        engine.scanProject(project);
+
+        Files.writeString(project.resolve("a/new.stack"), "django\n");
+        // Keep the modification time of the directory apart from the earlier listing
+        Files.setLastModifiedTime(project.resolve("a"), FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        DetectionResult result = engine.scanProject(project);
+        assertEquals(3, inspections.get());
+        assertTrue(result.frameworks.containsKey("django"));
+    }
+
+    @Test
+    @DisplayName("Should treat a touched but unchanged file as a hit when hashing content")
+    void testContentHash() throws IOException {
+        SbomFirstDetectorEngine engine = engine(true);
+        engine.scanProject(project);
+
+        Path root = project.resolve("root.stack");
+        Files.setLastModifiedTime(root, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        engine.scanProject(project);
+        assertEquals(2, inspections.get(), "Content is unchanged, so nothing should be inspected");
+    }
+
+    @Test
+    @DisplayName("Should discard the store when the registry changes")
+    void testRegistryChangeInvalidates() {
+        IncrementalScanCache first = IncrementalScanCache.open(cacheDir, project, "registry-a", false);
+        first.record("", 1L, List.of("root.stack"));
+        first.save();
+        assertTrue(Files.isRegularFile(first.file()));
+
+        assertEquals(List.of("root.stack"),
+            IncrementalScanCache.open(cacheDir, project, "registry-a", false).listing("", 1L));
+        assertNull(IncrementalScanCache.open(cacheDir, project, "registry-a", false).listing("", 2L),
+            "A modified directory must be listed again");
+        assertNull(IncrementalScanCache.open(cacheDir, project, "registry-b", false).listing("", 1L),
+            "Another registry must not reuse the store");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.detector.cli;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.ScanProperties;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomService;
+import com.example.detector.engine.DetectorService;
+import com.example.detector.engine.SbomFirstDetectorEngine;
+import com.example.detector.metrics.ScanMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for CliRunner output as seen on the process streams.
+ */
+@DisplayName("CliRunner Tests")
+class CliRunnerTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    @DisplayName("Should keep stdout to NDJSON records, with logs on stderr")
+    void testNdjsonStdoutHasOnlyRecords() throws Exception {
+        for (String project : List.of("one", "two")) {
+            Path dir = Files.createDirectories(temp.resolve(project));
+            Files.copy(Path.of("src/test/resources/sbom/sbom.json"), dir.resolve("sbom.json"));
+        }
+        RegistryLoader registryLoader = new RegistryLoader();
+        ScanMetrics metrics = new ScanMetrics();
+        SbomFirstDetectorEngine engine = new SbomFirstDetectorEngine(new SbomService(),
+            new SbomProcessor(new RegistryMatcher(registryLoader), metrics), List.of(), new ScanProperties(),
+            registryLoader, metrics);
+        CliRunner runner = new CliRunner(new DetectorService(engine), metrics);
+
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        // The application's logging configuration, as Spring Boot sets it up
+        LoggingSystem logging = LoggingSystem.get(getClass().getClassLoader());
+        int exitCode;
+        try {
+            System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            logging.beforeInitialize();
+            logging.initialize(new LoggingInitializationContext(new StandardEnvironment()), null, null);
+            exitCode = runner.execute(new String[] {"--aggregate", "--format=ndjson", temp.toString()},
+                System.out, System.err);
+        } finally {
+            logging.cleanUp();
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+
+        assertEquals(0, exitCode);
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        for (String line : lines) {
+            assertTrue(mapper.readTree(line).isObject(), "Not a JSON record: " + line);
+        }
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Starting project scan"),
+            "Logs should still be written, to stderr");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.detector.cli;
+
+import com.example.detector.model.DetectionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for NdjsonWriter.
+ */
+@DisplayName("NdjsonWriter Tests")
+class NdjsonWriterTest {
+
+    @Test
+    @DisplayName("Should write one flushed JSON document per line")
+    void testOneRecordPerLine() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NdjsonWriter writer = new NdjsonWriter(mapper, out)) {
+            for (String name : new String[] {"one", "two"}) {
+                DetectionResult result = new DetectionResult();
+                result.projectPath = name;
+                result.languages.add("Java");
+                writer.write(result);
+                assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"), "Each record should be flushed");
+            }
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("one", mapper.readTree(lines[0]).get("projectPath").asText());
+        assertEquals("two", mapper.readTree(lines[1]).get("projectPath").asText());
+        assertFalse(lines[1].startsWith(" "), "Records must not carry a root value separator");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.detector.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the AhoCorasick multi-pattern automaton.
+ */
+@DisplayName("AhoCorasick Tests")
+class AhoCorasickTest {
+
+    @Test
+    @DisplayName("Should report overlapping and nested patterns")
+    void testOverlappingPatterns() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+            .add("he", "he")
+            .add("she", "she")
+            .add("his", "his")
+            .add("hers", "hers")
+            .build();
+
+        List<String> hits = new ArrayList<>();
+        ac.scan("ushers", hits::add);
+
+        assertEquals(List.of("she", "he", "hers"), hits);
+    }
+
+    @Test
+    @DisplayName("Should report every payload of a pattern added more than once")
+    void testMultiplePayloads() {
+        AhoCorasick<Integer> ac = AhoCorasick.<Integer>builder()
+            .add("redis", 1)
+            .add("redis", 2)
+            .add("", 3)
+            .build();
+
+        List<Integer> hits = new ArrayList<>();
+        ac.scan("jedis redis-om", hits::add);
+
+        assertEquals(List.of(1, 2), hits);
+    }
+
+    @Test
+    @DisplayName("Should agree with String.contains on random input")
+    void testAgreesWithContains() {
+        Random random = new Random(42);
+        List<String> patterns = new ArrayList<>();
+        AhoCorasick.Builder<String> builder = AhoCorasick.builder();
+        for (int i = 0; i < 300; i++) {
+            String p = randomString(random, 1 + random.nextInt(6));
+            patterns.add(p);
+            builder.add(p, p);
+        }
+        AhoCorasick<String> ac = builder.build();
+
+        for (int i = 0; i < 200; i++) {
+            String text = randomString(random, random.nextInt(60));
+            Set<String> expected = new TreeSet<>();
+            for (String p : patterns) {
+                if (text.contains(p)) expected.add(p);
+            }
+            Set<String> actual = new TreeSet<>();
+            ac.scan(text, actual::add);
+            assertEquals(expected, actual, "Mismatch for text: " + text);
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append("abc-./".charAt(random.nextInt(6)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.detector.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the merged per-section regex expression.
+ */
+@DisplayName("RegexIndex Tests")
+class RegexIndexTest {
+
+    private static final String[] PATTERNS = {
+        "spring-boot-starter-\\w+",
+        "^org\\.springframework",
+        "jackson-(core|databind)$",
+        "(a)\\1b",
+        "redis(?!-om)",
+        "[unclosed",
+        "(?<name>log4j)-core",
+        "(?<name>slf4j)-api",
+        "micro(naut|profile)",
+    };
+
+    @Test
+    @DisplayName("Should agree with matching each pattern individually")
+    void testAgreesWithIndividualFind() {
+        List<RegistryEntry> entries = new ArrayList<>();
+        for (int i = 0; i < PATTERNS.length; i++) {
+            entries.add(entry(i, PATTERNS[i]));
+        }
+        RegexIndex index = new RegexIndex(entries);
+
+        String[] texts = {
+            "spring-boot-starter-web 3.2.0",
+            "org.springframework.boot",
+            "com.fasterxml.jackson.core jackson-databind",
+            "jackson-core-extra",
+            "aab redis redis-om",
+            "redis-om",
+            "[unclosed bracket",
+            "log4j-core slf4j-api",
+            "quarkus micronaut",
+            "",
+        };
+        for (String text : texts) {
+            BitSet expected = new BitSet();
+            for (RegistryEntry entry : entries) {
+                RegistryPattern p = entry.getKeywords().get(0);
+                boolean found = p.getRegex() != null
+                        ? p.getRegex().matcher(text).find()
+                        : text.contains(p.getLower());
+                if (found) expected.set(entry.getId());
+            }
+            BitSet actual = new BitSet();
+            index.scan(text, actual, null);
+            assertEquals(expected, actual, "Mismatch for text: " + text);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep malformed patterns and report why they failed")
+    void testMalformedPattern() {
+        RegistryPattern bad = new RegistryPattern("[unclosed", true);
+        assertNull(bad.getRegex());
+        assertNotNull(bad.getRegexError());
+
+        RegistryPattern notRegex = new RegistryPattern("[unclosed", false);
+        assertNull(notRegex.getRegex());
+        assertNull(notRegex.getRegexError());
+    }
+
+    @Test
+    @DisplayName("Should only run the patterns of entries for the component's ecosystem")
+    void testIndexPerEcosystem() {
+        RegistrySection section = new RegistrySection("frameworks", 0, List.of(
+            entry(0, "spring", Set.of("maven")), entry(1, "react", Set.of("npm")), entry(2, "graphql", Set.of())));
+        String text = "spring react graphql";
+
+        assertEquals(BitSet.valueOf(new long[] {0b101}), hits(section.getRegexIndex("maven"), text));
+        assertEquals(BitSet.valueOf(new long[] {0b110}), hits(section.getRegexIndex("npm"), text));
+        assertEquals(BitSet.valueOf(new long[] {0b100}), hits(section.getRegexIndex("pypi"), text),
+            "Ecosystems no entry names only run the universal entries");
+        assertEquals(BitSet.valueOf(new long[] {0b111}), hits(section.getRegexIndex(null), text),
+            "Components without a PURL run every entry");
+    }
+
+    private static BitSet hits(RegexIndex index, String text) {
+        BitSet hits = new BitSet();
+        index.scan(text, hits, null);
+        return hits;
+    }
+
+    private static RegistryEntry entry(int id, String pattern) {
+        return entry(id, pattern, Set.of());
+    }
+
+    private static RegistryEntry entry(int id, String pattern, Set<String> ecosystems) {
+        return new RegistryEntry(id, "frameworks", "e" + id, MatchMode.REGEX, PurlMatch.NAMESPACE,
+                List.of(new RegistryPattern(pattern, true)), List.of(), List.of(), List.of(), ecosystems);
+    }
+}
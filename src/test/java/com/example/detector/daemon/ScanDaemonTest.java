@@ -0,0 +1,102 @@
+package com.example.detector.daemon;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test cases for ScanDaemon and DaemonClient talking over a Unix domain socket.
+ */
+@DisplayName("ScanDaemon Tests")
+class ScanDaemonTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    @DisplayName("Should relay stdout, stderr and the exit code of a forwarded invocation")
+    void testForward() throws Exception {
+        Path socket = temp.resolve("d.sock");
+        String[] seen = new String[1];
+        ScanDaemon daemon = new ScanDaemon(socket, 2, (args, out, err) -> {
+            seen[0] = String.join(" ", args);
+            out.println("{\"a\":1}");
+            out.print("{\"b\":2}\n{\"c\":");
+            out.println("3}");
+            err.println("Warning: something");
+            return 3;
+        });
+        Thread server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = -1;
+        // The socket file appears on bind, just before the daemon listens
+        for (int i = 0; i < 100 && exitCode == -1; i++) {
+            Thread.sleep(20);
+            exitCode = DaemonClient.forward(new String[] {"--client", "--socket=" + socket, "--compact", "proj"},
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        }
+
+        assertEquals(3, exitCode);
+        assertEquals("{\"a\":1}\n{\"b\":2}\n{\"c\":3}\n", out.toString(StandardCharsets.UTF_8).replace("\r\n", "\n"));
+        assertEquals("Warning: something", err.toString(StandardCharsets.UTF_8).trim());
+        assertEquals("--socket=" + socket + " --compact " + Path.of("proj").toAbsolutePath(), seen[0],
+            "The client flag is dropped and project paths are made absolute");
+    }
+
+    @Test
+    @DisplayName("Should report that no daemon is running")
+    void testNoDaemon() throws IOException {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+        assertEquals(-1, DaemonClient.forward(new String[] {"--socket=" + temp.resolve("none.sock")}, sink, sink));
+        assertEquals(List.of("--compact"), DaemonClient.forwardedArgs(new String[] {"--client", "--compact"}));
+    }
+
+    @Test
+    @DisplayName("Should scan locally when asked for properties the daemon bound at startup")
+    void testPropertiesScanLocally() throws IOException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(-1, DaemonClient.forward(
+            new String[] {"--client", "--socket=" + temp.resolve("d.sock"), "--detector.scan.full-evidence=true", "proj"},
+            new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8),
+            new PrintStream(err, true, StandardCharsets.UTF_8)));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("--detector.scan.full-evidence=true"));
+        assertNull(DaemonClient.unsupportedByDaemon(new String[] {"--compact", "proj"}));
+        assertEquals("--stats=json", DaemonClient.unsupportedByDaemon(new String[] {"--stats=json", "proj"}),
+            "Statistics of a daemon would include every other request");
+    }
+
+    @Test
+    @DisplayName("Should refuse to listen in a directory other users can access")
+    void testSharedDirectoryRefused() throws IOException {
+        Path shared = temp.resolve("shared");
+        Files.createDirectory(shared);
+        assumeTrue(Files.getFileAttributeView(shared, PosixFileAttributeView.class) != null, "POSIX permissions only");
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        ScanDaemon daemon = new ScanDaemon(shared.resolve("d.sock"), 1, (args, out, err) -> 0);
+        assertThrows(IllegalStateException.class, daemon::serve);
+        assertTrue(Files.notExists(shared.resolve("d.sock")));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.detector.detectors.framework;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.spi.FileContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for PackageJsonDetector matching streamed dependencies against the registry.
+ */
+@DisplayName("PackageJsonDetector Tests")
+class PackageJsonDetectorTest {
+
+    @TempDir
+    Path temp;
+
+    private final PackageJsonDetector detector = new PackageJsonDetector(new RegistryLoader());
+
+    @Test
+    @DisplayName("Should report registry frameworks and languages with the preferred version")
+    void testDetectsFromAllScopes() throws Exception {
+        DetectionResult result = inspect("""
+            {
+              "name": "web",
+              "overrides": {"dependencies": {"vue": "3.0.0"}},
+              "scripts": {"build": "next build"},
+              "devDependencies": {"tailwindcss": "3.4.0", "typescript": "5.3.0", "redux": "4.2.1"},
+              "dependencies": {"react": "^18.2.0", "redux": "^5.0.0", "@reduxjs/toolkit": "2.0.0",
+                               "tailwindcss": {"version": "3.3.0"}, "left-pad": "1.3.0"},
+              "peerDependencies": {"graphql": ">=16"}
+            }
+            """);
+
+        assertEquals(Map.of(
+                "React", List.of("^18.2.0"),
+                "Redux", List.of("2.0.0"),
+                "Tailwind CSS", List.of(""),
+                "GraphQL", List.of(">=16")),
+            result.frameworks, "Nested dependency blocks should be ignored");
+        assertEquals(Set.of("JavaScript", "TypeScript"), result.languages);
+        assertEquals(List.of("package.json detected"), result.runtimes.get("Node.js"));
+    }
+
+    @Test
+    @DisplayName("Should report nothing for a file that is not valid JSON")
+    void testIgnoresInvalidJson() throws Exception {
+        DetectionResult result = inspect("{\"dependencies\": {\"react\": \"18.0.0\"}, ");
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream a file beyond the size cap of the file context")
+    void testStreamsLargeFile() throws Exception {
+        Path file = temp.resolve("package.json");
+        Files.writeString(file, "{\"description\": \"" + "x".repeat(4096) + "\", \"dependencies\": {\"react\": \"18.0.0\"}}");
+        DetectionResult result = new DetectionResult();
+        detector.inspect(new FileContext(file, temp, new FileContext.Limits(1024, 512)), result);
+
+        assertEquals(Map.of("React", List.of("18.0.0")), result.frameworks);
+        assertEquals(List.of("package.json detected"), result.runtimes.get("Node.js"));
+    }
+
+    private DetectionResult inspect(String content) throws Exception {
+        Path file = temp.resolve("package.json");
+        Files.writeString(file, content);
+        DetectionResult result = new DetectionResult();
+        detector.inspect(new FileContext(file, temp), result);
+        return result;
+    }
+}
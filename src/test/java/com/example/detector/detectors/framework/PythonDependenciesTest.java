@@ -0,0 +1,121 @@
+package com.example.detector.detectors.framework;
+
+import com.example.detector.spi.FileContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for PythonDependencies reading requirements.txt, Pipfile and pyproject.toml.
+ */
+@DisplayName("PythonDependencies Tests")
+class PythonDependenciesTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    @DisplayName("Should normalize package names as PEP 503 does")
+    void testNormalize() {
+        assertEquals("zope-interface", PythonDependencies.normalize("Zope.Interface"));
+        assertEquals("scikit-learn", PythonDependencies.normalize("scikit__learn"));
+        assertEquals("a-b", PythonDependencies.normalize("A-_.B"));
+    }
+
+    @Test
+    @DisplayName("Should read requirements with extras, markers, comments and continuations")
+    void testRequirements() throws Exception {
+        Map<String, PythonDependencies.Requirement> deps = parse("requirements.txt", """
+            # pinned by the lock job
+            -r base.txt
+            --index-url https://pypi.example.com/simple
+            Flask==2.3.2  # web
+            flask-cors>=4.0
+            requests[socks] >= 2.31 ; python_version >= "3.8"
+            SQLAlchemy \\
+                ~=2.0
+            mylib @ https://example.com/mylib-1.0.tar.gz
+            -e ./local/pkg
+            https://example.com/other.whl
+            Flask==1.0
+            """);
+
+        assertEquals(List.of("flask", "flask-cors", "requests", "sqlalchemy", "mylib"), List.copyOf(deps.keySet()));
+        assertEquals("==2.3.2", deps.get("flask").specifier(), "The first declaration should win");
+        assertEquals("Flask==2.3.2", deps.get("flask").declaration());
+        assertEquals(">= 2.31", deps.get("requests").specifier());
+        assertEquals("~=2.0", deps.get("sqlalchemy").specifier());
+        assertEquals("@ https://example.com/mylib-1.0.tar.gz", deps.get("mylib").specifier());
+    }
+
+    @Test
+    @DisplayName("Should read the package tables of a Pipfile")
+    void testPipfile() throws Exception {
+        Map<String, PythonDependencies.Requirement> deps = parse("Pipfile", """
+            [[source]]
+            url = "https://pypi.org/simple"
+            name = "pypi"
+
+            [packages]
+            django = "*"
+            "Django_REST.framework" = ">=3.14"
+            celery = {version = "~=5.3", extras = ["redis"]}
+
+            [dev-packages]
+            pytest = "==7.4.0"
+
+            [requires]
+            python_version = "3.11"
+            """);
+
+        assertEquals(List.of("django", "django-rest-framework", "celery", "pytest"), List.copyOf(deps.keySet()));
+        assertEquals("", deps.get("django").specifier());
+        assertEquals("~=5.3", deps.get("celery").specifier());
+        assertEquals("pytest = \"==7.4.0\"", deps.get("pytest").declaration());
+    }
+
+    @Test
+    @DisplayName("Should read PEP 621 and Poetry dependencies of a pyproject.toml")
+    void testPyproject() throws Exception {
+        Map<String, PythonDependencies.Requirement> deps = parse("pyproject.toml", """
+            [project]
+            name = "service"
+            dependencies = [
+                "fastapi>=0.110",  # api
+                'pydantic[email]>=2,<3',
+            ]
+
+            [project.optional-dependencies]
+            ml = ["torch==2.2.0", "numpy"]
+
+            [tool.poetry.dependencies]
+            python = "^3.11"
+            boto3 = "^1.34"
+
+            [tool.poetry.group.test.dependencies]
+            pytest-asyncio = { version = "^0.23" }
+
+            [tool.black]
+            line-length = 100
+            """);
+
+        assertEquals(List.of("fastapi", "pydantic", "torch", "numpy", "boto3", "pytest-asyncio"),
+            List.copyOf(deps.keySet()));
+        assertEquals(">=2,<3", deps.get("pydantic").specifier());
+        assertEquals("^1.34", deps.get("boto3").specifier());
+        assertEquals("^0.23", deps.get("pytest-asyncio").specifier());
+    }
+
+    private Map<String, PythonDependencies.Requirement> parse(String name, String content) throws Exception {
+        Path file = temp.resolve(name);
+        Files.writeString(file, content);
+        return new FileContext(file, temp).parsed(PythonDependencies.PARSER);
+    }
+}
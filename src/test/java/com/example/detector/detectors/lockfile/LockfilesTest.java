@@ -0,0 +1,194 @@
+package com.example.detector.detectors.lockfile;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.spi.FileContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the lockfile readers and LockfileDetector classifying locked packages.
+ */
+@DisplayName("Lockfiles Tests")
+class LockfilesTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    @DisplayName("Should read npm packages from package-lock.json, yarn.lock and pnpm-lock.yaml")
+    void testNpmLockfiles() throws Exception {
+        assertEquals(List.of("pkg:npm/react@18.2.0", "pkg:npm/%40babel/core@7.22.5", "pkg:npm/react@17.0.2",
+                "pkg:npm/loose-envify@1.4.0", "pkg:npm/left-pad@1.3.0"),
+            read("package-lock.json", """
+                {"lockfileVersion": 3, "packages": {
+                  "": {"name": "web", "version": "1.0.0", "dependencies": {"react": "^18.2.0"}},
+                  "node_modules/react": {"version": "18.2.0", "dependencies": {"loose-envify": "^1.1.0"}},
+                  "node_modules/@babel/core": {"version": "7.22.5"},
+                  "node_modules/legacy/node_modules/react": {"version": "17.0.2"},
+                  "packages/app": {"version": "0.0.1"}},
+                 "dependencies": {"left-pad": {"version": "1.3.0",
+                   "dependencies": {"loose-envify": {"version": "1.4.0"}}}}}
+                """));
+        assertEquals(List.of("pkg:npm/%40babel/core@7.22.5", "pkg:npm/lodash@4.17.21", "pkg:npm/react@18.2.0"),
+            concat(read("yarn.lock", """
+                # yarn lockfile v1
+
+                "@babel/core@^7.0.0", "@babel/core@^7.1.0":
+                  version "7.22.5"
+                  resolved "https://registry.yarnpkg.com/@babel/core/-/core-7.22.5.tgz"
+
+                lodash@^4.17.21:
+                  version "4.17.21"
+                """), read("yarn.lock", """
+                __metadata:
+                  version: 6
+
+                "react@npm:^18.2.0, react@npm:^18.0.0":
+                  version: 18.2.0
+
+                "web@workspace:.":
+                  version: 0.0.0-use.local
+                """)));
+        assertEquals(List.of("pkg:npm/%40babel/core@7.22.5", "pkg:npm/react-dom@18.2.0", "pkg:npm/react@18.2.0",
+                "pkg:npm/scheduler@0.23.0"),
+            concat(read("pnpm-lock.yaml", """
+                lockfileVersion: '6.0'
+                dependencies:
+                  react:
+                    specifier: ^18.2.0
+                    version: 18.2.0
+                packages:
+                  /@babel/core@7.22.5:
+                    resolution: {integrity: sha512-x}
+                  /react-dom@18.2.0(react@18.2.0):
+                    dependencies:
+                      react: 18.2.0
+                """), read("pnpm-lock.yaml", """
+                lockfileVersion: 5.4
+                packages:
+                  /react/18.2.0:
+                    resolution: {integrity: sha512-y}
+                  /scheduler/0.23.0_react@18.2.0:
+                    dev: false
+                """)));
+    }
+
+    @Test
+    @DisplayName("Should read Python, Go, Rust and Gradle lockfiles")
+    void testOtherLockfiles() throws Exception {
+        assertEquals(List.of("pkg:pypi/langchain@0.1.0", "pkg:pypi/typing-extensions@4.9.0"),
+            read("poetry.lock", """
+                [[package]]
+                name = "langchain"
+                version = "0.1.0"
+                description = "Building applications with LLMs"
+
+                [package.dependencies]
+                pydantic = ">=1,<3"
+
+                [[package]]
+                name = "typing_extensions"
+                version = "4.9.0"
+
+                [metadata]
+                lock-version = "2.0"
+                """));
+        assertEquals(List.of("pkg:pypi/django@5.0.1", "pkg:pypi/pytest@7.4.4"),
+            read("Pipfile.lock", """
+                {"_meta": {"hash": {"sha256": "x"}, "requires": {"python_version": "3.11"}},
+                 "default": {"django": {"hashes": ["sha256:a"], "version": "==5.0.1"}},
+                 "develop": {"pytest": {"version": "==7.4.4", "markers": "python_version >= '3.7'"}}}
+                """));
+        assertEquals(List.of("pkg:golang/github.com/aws/aws-sdk-go-v2@v1.24.0"),
+            read("go.sum", """
+                github.com/aws/aws-sdk-go-v2 v1.9.0 h1:old=
+                github.com/aws/aws-sdk-go-v2 v1.24.0 h1:abc=
+                github.com/aws/aws-sdk-go-v2 v1.24.0/go.mod h1:def=
+                github.com/aws/aws-sdk-go-v2 v1.24.0-rc.1 h1:pre=
+                golang.org/x/text v0.3.0/go.mod h1:ghi=
+                """), "Versions minimal version selection did not pick are left out");
+        assertEquals(List.of("pkg:cargo/serde@1.0.195", "pkg:cargo/tokio@1.35.1"),
+            read("Cargo.lock", """
+                version = 3
+
+                [[package]]
+                name = "serde"
+                version = "1.0.195"
+                source = "registry+https://github.com/rust-lang/crates.io-index"
+
+                [[package]]
+                name = "tokio"
+                version = "1.35.1"
+                dependencies = [
+                 "bytes",
+                ]
+                """));
+        assertEquals(List.of("pkg:maven/org.springframework.boot/spring-boot@3.2.6"),
+            read("gradle.lockfile", """
+                # This is a Gradle generated file for dependency locking.
+                org.springframework.boot:spring-boot:3.2.6=compileClasspath,runtimeClasspath
+                empty=annotationProcessor
+                """));
+    }
+
+    @Test
+    @DisplayName("Should order Go module versions semantically")
+    void testGoVersionOrder() {
+        assertTrue(Lockfiles.compareGoVersions("v1.10.0", "v1.9.3") > 0);
+        assertTrue(Lockfiles.compareGoVersions("v1.2.0", "v1.2.0-rc.2") > 0);
+        assertTrue(Lockfiles.compareGoVersions("v1.2.0-rc.10", "v1.2.0-rc.2") > 0);
+        assertTrue(Lockfiles.compareGoVersions("v0.0.0-20240102000000-abcdef123456",
+            "v0.0.0-20231231000000-fedcba654321") > 0);
+        assertEquals(0, Lockfiles.compareGoVersions("v2.0.0+incompatible", "v2.0.0"));
+    }
+
+    @Test
+    @DisplayName("Should classify locked packages the way SBOM components are")
+    void testClassifiesLikeSbom() throws Exception {
+        Path lockfile = temp.resolve("package-lock.json");
+        Files.writeString(lockfile, """
+            {"lockfileVersion": 3, "packages": {
+              "node_modules/react": {"version": "18.2.0"},
+              "node_modules/a/node_modules/react": {"version": "18.2.0"},
+              "node_modules/@angular/core": {"version": "17.1.0"}}}
+            """);
+        DetectionResult result = new DetectionResult();
+        new LockfileDetector(new SbomProcessor(new RegistryMatcher(new RegistryLoader())))
+            .inspect(new FileContext(lockfile, temp), result);
+
+        assertEquals(Set.of("JavaScript"), result.languages);
+        assertEquals(Map.of(
+                "react:18.2.0", List.of("react:18.2.0 (pkg:npm/react@18.2.0)"),
+                "angular:17.1.0", List.of("core:17.1.0 (pkg:npm/%40angular/core@17.1.0)")),
+            result.frameworks, "A package locked twice should be classified once");
+    }
+
+    private static List<String> read(String fileName, String content) throws Exception {
+        List<String> purls = new ArrayList<>();
+        Lockfiles.READERS.get(fileName.toLowerCase()).read(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+            (type, namespace, name, version) -> purls.add(LockfileDetector.purl(type, namespace, name, version)));
+        return purls;
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
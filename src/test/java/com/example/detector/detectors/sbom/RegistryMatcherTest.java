@@ -0,0 +1,95 @@
+package com.example.detector.detectors.sbom;
+
+import com.example.detector.config.RegistryLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RegistryMatcher against the bundled registry.json.
+ */
+@DisplayName("RegistryMatcher Tests")
+class RegistryMatcherTest {
+
+    private RegistryMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new RegistryMatcher(new RegistryLoader());
+    }
+
+    @Test
+    @DisplayName("Should match exact namespace entries for Maven components")
+    void testExactNamespaceMatch() {
+        assertEquals(List.of("spring-boot"), matcher.matchFrameworks("spring-boot-starter",
+            "pkg:maven/org.springframework.boot/spring-boot-starter@3.5.0?type=jar"));
+        assertEquals(List.of("spring-framework"), matcher.matchFrameworks("spring-core",
+            "pkg:maven/org.springframework/spring-core@6.2.7?type=jar"));
+    }
+
+    @Test
+    @DisplayName("Should resolve exact entries by name, namespace and haystack keys")
+    void testExactKeyLookup() {
+        assertEquals(List.of("angular"), matcher.matchFrameworks("core", "pkg:npm/%40angular/core@17.0.1"));
+        assertTrue(matcher.matchFrameworks("core", "pkg:npm/%40angular-devkit/core@17.0.1").isEmpty(),
+            "Exact entries should not match on a prefix");
+        assertEquals(List.of("langchain"), matcher.matchFrameworks("langchain", null),
+            "Without a PURL the trimmed haystack is the only key");
+        assertTrue(matcher.matchFrameworks("langchain", "pkg:pypi/%40org/langchain@0.2.0").isEmpty(),
+            "purlMatch=name exact entries should skip scoped packages");
+    }
+
+    @Test
+    @DisplayName("Should not match components against entries of other ecosystems")
+    void testEcosystemScoping() {
+        assertTrue(matcher.matchFrameworks("spring-boot",
+            "pkg:npm/org.springframework.boot/spring-boot@1.0.0").isEmpty(),
+            "Maven-only entries should not match npm components");
+        assertTrue(matcher.matchFrameworks("django-helper", "pkg:npm/django-helper@1.0.0").isEmpty(),
+            "PyPI-only entries should not match npm components");
+        assertEquals(List.of("django"), matcher.matchFrameworks("django", "pkg:pypi/django@4.2.0"));
+    }
+
+    @Test
+    @DisplayName("Should honor purlMatch=name and skip scoped packages")
+    void testPurlMatchNameSkipsScopedPackages() {
+        assertEquals(List.of("react"), matcher.matchFrameworks("react", "pkg:npm/react@18.3.1"));
+        assertTrue(matcher.matchFrameworks("react", "pkg:npm/%40types/react@18.3.27").isEmpty());
+        assertTrue(matcher.matchFrameworks("react", "pkg:npm/%40emotion/react@11.14.0").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fall back to haystack matching when no PURL is present")
+    void testMatchWithoutPurl() {
+        assertEquals(List.of("fastapi"), matcher.matchFrameworks("fastapi", null));
+        assertEquals(List.of("postgres"), matcher.matchDatabases("org.postgresql postgresql", null));
+    }
+
+    @Test
+    @DisplayName("Should only match the requested sections")
+    void testMatchAllRequestedSections() {
+        String purl = "pkg:maven/org.postgresql/postgresql@42.7.0";
+        assertEquals(List.of("postgres"), matcher.matchAll("postgresql", purl).get("databases"));
+        Map<String, List<String>> frameworksOnly = matcher.matchAll("postgresql", purl, Set.of("frameworks"));
+        assertFalse(frameworksOnly.containsKey("databases"));
+    }
+
+    @Test
+    @DisplayName("Should parse PURL components")
+    void testPurlParsing() {
+        Purl purl = Purl.parse("pkg:npm/%40angular/core@17.0.1?foo=bar#sub");
+        assertEquals("npm", purl.getType());
+        assertEquals("%40angular", purl.getNamespace());
+        assertEquals("@angular", purl.getDecodedNamespace());
+        assertEquals("core", purl.getName());
+        assertEquals("17.0.1", purl.getVersion());
+        assertEquals("17.0.1", Purl.versionOf("pkg:npm/%40angular/core@17.0.1?foo=bar#sub"));
+        assertNull(Purl.versionOf("pkg:npm/left-pad"));
+    }
+}
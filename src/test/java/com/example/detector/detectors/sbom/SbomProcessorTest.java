@@ -36,6 +36,24 @@ class SbomProcessorTest {
         testResourcesDir = Paths.get("src", "test", "resources", "sbom");
     }
 
+    @Test
+    @DisplayName("Should classify a component in a single pass")
+    void testClassify() {
+        ComponentClassification c = sbomProcessor.classify("spring-boot-starter",
+            "pkg:maven/org.springframework.boot/spring-boot-starter@3.5.0?type=jar");
+
+        assertEquals("Java", c.getLanguage());
+        assertEquals("3.5.0", c.getEffectiveVersion());
+        assertEquals(List.of("spring-boot"), c.hits("frameworks"));
+        assertTrue(c.hits("databases").isEmpty());
+        assertFalse(c.isContainer());
+
+        DetectionResult result = new DetectionResult();
+        sbomProcessor.apply(c, result);
+        assertTrue(result.frameworks.containsKey("spring-boot:3.5.0"));
+        assertEquals(List.of(c.getEvidence()), result.frameworks.get("spring-boot:3.5.0"));
+    }
+
     @Test
     @DisplayName("Should process sbom_AI.json and detect Python language")
     void testProcessSbomAI() throws IOException, ParseException {
@@ -137,6 +155,28 @@ class SbomProcessorTest {
         }
     }
 
+    @Test
+    @DisplayName("Should produce the same result from a streamed SBOM as from a parsed Bom")
+    void testStreamingMatchesBom() throws IOException, ParseException {
+        for (String file : List.of("sbom.json", "sbom_AI.json", "sbom_UI.json")) {
+            Path sbomFile = testResourcesDir.resolve(file);
+            if (!sbomFile.toFile().exists() || sbomFile.toFile().length() == 0) {
+                continue;
+            }
+
+            DetectionResult parsed = new DetectionResult();
+            sbomProcessor.processBom(sbomService.parseBom(sbomFile), parsed);
+            DetectionResult streamed = new DetectionResult();
+            sbomService.streamBom(sbomFile, sbomProcessor.visitor(streamed));
+
+            assertEquals(parsed.languages, streamed.languages, file);
+            assertEquals(parsed.frameworks, streamed.frameworks, file);
+            assertEquals(parsed.cloudSdks, streamed.cloudSdks, file);
+            assertEquals(parsed.databases, streamed.databases, file);
+            assertEquals(parsed.infrastructure, streamed.infrastructure, file);
+        }
+    }
+
     @Test
     @DisplayName("Should handle null BOM gracefully")
     void testProcessNullBom() {
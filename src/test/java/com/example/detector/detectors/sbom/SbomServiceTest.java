@@ -6,10 +6,13 @@ import org.cyclonedx.model.Component;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -184,4 +187,56 @@ class SbomServiceTest {
             }
         }
     }
+
+    @Test
+    @DisplayName("Should stream the same components as the full parser")
+    void testStreamMatchesParser() throws IOException, ParseException {
+        Path sbomFile = testResourcesDir.resolve("sbom.json");
+
+        if (!sbomFile.toFile().exists() || sbomFile.toFile().length() == 0) {
+            return;
+        }
+
+        List<String> parsed = new ArrayList<>();
+        for (Component c : sbomService.parseBom(sbomFile).getComponents()) {
+            parsed.add(c.getName() + "|" + c.getVersion() + "|" + c.getPurl());
+        }
+
+        List<String> streamed = new ArrayList<>();
+        int count = sbomService.streamBom(sbomFile,
+            (name, version, purl, type) -> streamed.add(name + "|" + version + "|" + purl));
+
+        assertEquals(parsed.size(), count);
+        assertEquals(parsed, streamed);
+    }
+
+    @Test
+    @DisplayName("Should stream nested components and both forms of metadata.tools")
+    void testStreamNestedComponentsAndTools(@TempDir Path tempDir) throws IOException {
+        Path sbomFile = tempDir.resolve("bom.json");
+        Files.writeString(sbomFile, "{"
+            + "\"bomFormat\": \"CycloneDX\","
+            + "\"metadata\": {\"tools\": {\"components\": [{\"group\": \"org.apache\", \"name\": \"maven\"}]}},"
+            + "\"components\": [{\"name\": \"app\", \"type\": \"container\", \"hashes\": [{\"alg\": \"SHA-256\"}],"
+            + "  \"components\": [{\"name\": \"lib\", \"version\": \"1.0\", \"purl\": \"pkg:npm/lib@1.0\"}]}],"
+            + "\"dependencies\": [{\"ref\": \"app\"}]"
+            + "}");
+
+        List<String> components = new ArrayList<>();
+        List<String> tools = new ArrayList<>();
+        sbomService.streamBom(sbomFile, new SbomVisitor() {
+            @Override
+            public void component(String name, String version, String purl, String type) {
+                components.add(name + "|" + version + "|" + purl + "|" + type);
+            }
+
+            @Override
+            public void tool(String vendor, String name) {
+                tools.add(vendor + "|" + name);
+            }
+        });
+
+        assertEquals(List.of("lib|1.0|pkg:npm/lib@1.0|null", "app|null|null|container"), components);
+        assertEquals(List.of("org.apache|maven"), tools);
+    }
 }
@@ -0,0 +1,85 @@
+package com.example.detector.engine;
+
+import com.example.detector.model.DetectionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DetectorService scanning several projects in parallel.
+ */
+@DisplayName("DetectorService Tests")
+class DetectorServiceTest {
+
+    /** Finishes later projects first, and fails on a project named "broken". */
+    private final SbomFirstDetectorEngine engine = new SbomFirstDetectorEngine(null, null, List.of()) {
+        @Override
+        public DetectionResult scanProject(Path projectRoot) {
+            String name = projectRoot.getFileName().toString();
+            threads.add(Thread.currentThread().getName());
+            started.incrementAndGet();
+            if (name.equals("broken")) throw new IllegalStateException("cannot scan " + name);
+            try {
+                Thread.sleep(Math.max(0, 40 - 2L * Integer.parseInt(name.substring(1))));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            DetectionResult result = new DetectionResult();
+            result.projectPath = name;
+            result.languages.add(name);
+            return result;
+        }
+    };
+    private final ConcurrentHashMap.KeySetView<String, Boolean> threads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger started = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should report results in input order and isolate failing projects")
+    void testOrderAndIsolation() throws InterruptedException {
+        List<Path> roots = new ArrayList<>();
+        IntStream.range(0, 20).forEach(i -> roots.add(Path.of("p" + i)));
+        roots.add(5, Path.of("broken"));
+
+        List<Path> order = new ArrayList<>();
+        List<DetectionResult> results = new ArrayList<>();
+        new DetectorService(engine).scanProjects(roots, 4, (root, result) -> {
+            order.add(root);
+            results.add(result);
+        });
+
+        assertEquals(roots, order);
+        assertTrue(threads.size() > 1, "Projects should be scanned on several threads");
+        assertTrue(results.get(5).error.contains("cannot scan broken"));
+        assertTrue(results.get(5).languages.isEmpty());
+        for (int i = 0; i < results.size(); i++) {
+            if (i == 5) continue;
+            assertNull(results.get(i).error);
+            assertEquals(roots.get(i).toString(), results.get(i).projectPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a bounded window of projects in flight")
+    void testBoundedWindow() throws InterruptedException {
+        List<Path> roots = new ArrayList<>();
+        IntStream.range(0, 40).forEach(i -> roots.add(Path.of("p" + i)));
+
+        AtomicInteger handed = new AtomicInteger();
+        new DetectorService(engine).scanProjects(roots, 2, (root, result) -> {
+            assertTrue(started.get() - handed.get() <= 4,
+                "No more than twice the parallelism may be submitted ahead of the sink");
+            handed.incrementAndGet();
+        });
+
+        assertEquals(40, handed.get());
+        assertEquals(40, started.get());
+    }
+}
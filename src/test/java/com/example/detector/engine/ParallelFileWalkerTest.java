@@ -0,0 +1,196 @@
+package com.example.detector.engine;
+
+import com.example.detector.model.DetectionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ParallelFileWalker against a generated directory tree.
+ */
+@DisplayName("ParallelFileWalker Tests")
+class ParallelFileWalkerTest {
+
+    @TempDir
+    Path root;
+
+    private static final ParallelFileWalker.FileHandler RECORD_ALL =
+        (file, attrs, sink) -> sink.addInfrastructure("file", file.toString());
+
+    @Test
+    @DisplayName("Should produce the same result as a sequential Files.walk")
+    void testMatchesSequentialWalk() throws IOException {
+        generateTree(root, 3, 4, 5);
+
+        DetectionResult expected = new DetectionResult();
+        try (Stream<Path> stream = Files.walk(root)) {
+            stream.filter(Files::isRegularFile).forEach(p -> expected.addInfrastructure("file", p.toString()));
+        }
+
+        ParallelFileWalker walker = new ParallelFileWalker(new ForkJoinPool(8));
+        ParallelFileWalker.WalkResult walk = walker.walk(root, Integer.MAX_VALUE, RECORD_ALL);
+
+        List<String> expectedFiles = expected.infrastructure.get("file");
+        assertEquals(expectedFiles.size(), walk.filesVisited(), "Every regular file should be visited once");
+        assertEquals(expectedFiles, walk.result().infrastructure.get("file"),
+            "Parallel walk should preserve sequential traversal order");
+    }
+
+    @Test
+    @DisplayName("Should skip denied directories and entries matched by ignore files")
+    void testPruning() throws IOException {
+        for (String file : List.of("pom.xml", "node_modules/react/package.json", "target/classes/app.jar",
+                "src/main/App.java", "src/main/App.log", "src/gen/Stub.java", "src/keep/out/Main.java",
+                "web/.gitignore", "web/dist/bundle.js", "web/package.json", "web/local/settings.json",
+                "docs/build/index.html")) {
+            Path p = root.resolve(file);
+            Files.createDirectories(p.getParent());
+            Files.writeString(p, "x");
+        }
+        Files.writeString(root.resolve(".gitignore"), "# comment\n*.log\n/src/gen/\nout/\n!src/keep/out\n");
+        Files.writeString(root.resolve("web/.gitignore"), "local\n");
+
+        PrunePolicy prune = new PrunePolicy(List.of("node_modules", "target", "dist"), List.of(".gitignore"));
+        ParallelFileWalker.WalkResult walk = new ParallelFileWalker(new ForkJoinPool(4))
+            .walk(root, Integer.MAX_VALUE, prune, RECORD_ALL);
+
+        List<String> visited = walk.result().infrastructure.get("file").stream()
+            .map(f -> root.relativize(Path.of(f)).toString().replace('\\', '/'))
+            .sorted()
+            .toList();
+        assertEquals(List.of(".gitignore", "docs/build/index.html", "pom.xml", "src/keep/out/Main.java",
+            "src/main/App.java", "web/.gitignore", "web/package.json"), visited);
+        assertEquals(5, walk.directoriesPruned(), "node_modules, target, src/gen, web/dist and web/local");
+    }
+
+    @Test
+    @DisplayName("Should admit priority files and shallow files first when the budget is tight")
+    void testBudgetPrioritizesManifestsAndShallowFiles() throws IOException {
+        generateTree(root, 3, 3, 4);
+        Path deep = root.resolve("dir2/dir2/dir2/pom.xml");
+        Files.writeString(deep, "<project/>");
+
+        ParallelFileWalker.FileRanker ranker = name -> name.equals("pom.xml")
+            ? ParallelFileWalker.PRIORITY : ParallelFileWalker.NORMAL;
+        ParallelFileWalker.WalkResult walk = new ParallelFileWalker(new ForkJoinPool(4))
+            .walk(root, ScanBudget.ofFiles(6), PrunePolicy.NONE, ranker, RECORD_ALL);
+
+        List<String> visited = walk.result().infrastructure.get("file");
+        assertEquals(6, walk.filesVisited());
+        assertEquals(ScanBudget.FILES, walk.budgetExhausted());
+        assertTrue(visited.contains(deep.toString()), "Deep manifest should be admitted before other files");
+        for (int i = 0; i < 4; i++) {
+            assertTrue(visited.contains(root.resolve("file" + i + ".txt").toString()),
+                "Root-level files should be admitted before deeper ones");
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip files that do not fit the byte budget and report it")
+    void testByteBudget() throws IOException {
+        Files.writeString(root.resolve("a.txt"), "x".repeat(10));
+        Files.writeString(root.resolve("big.txt"), "x".repeat(1000));
+        Files.writeString(root.resolve("c.txt"), "x".repeat(10));
+
+        ParallelFileWalker.WalkResult walk = new ParallelFileWalker(new ForkJoinPool(2))
+            .walk(root, new ScanBudget(100, 100, Duration.ZERO), PrunePolicy.NONE,
+                name -> ParallelFileWalker.NORMAL, RECORD_ALL);
+
+        assertEquals(2, walk.filesVisited());
+        assertEquals(20, walk.bytesVisited());
+        assertEquals(ScanBudget.BYTES, walk.budgetExhausted());
+    }
+
+    @Test
+    @DisplayName("Should not charge the byte budget for files handled by name alone")
+    void testByteBudgetOnlyChargesReadContent() throws IOException {
+        Files.writeString(root.resolve("App.java"), "x".repeat(1000));
+        Files.writeString(root.resolve("a.txt"), "x".repeat(10));
+
+        ParallelFileWalker.FileRanker ranker = new ParallelFileWalker.FileRanker() {
+            @Override
+            public int rank(String fileName) {
+                return ParallelFileWalker.NORMAL;
+            }
+
+            @Override
+            public ParallelFileWalker.Ranking ranking(String fileName) {
+                return new ParallelFileWalker.Ranking(rank(fileName), !fileName.endsWith(".java"), null);
+            }
+        };
+        ParallelFileWalker.WalkResult walk = new ParallelFileWalker(new ForkJoinPool(2))
+            .walk(root, new ScanBudget(100, 100, Duration.ZERO), PrunePolicy.NONE, ranker, RECORD_ALL);
+
+        assertEquals(2, walk.filesVisited());
+        assertEquals(10, walk.bytesVisited());
+        assertNull(walk.budgetExhausted());
+    }
+
+    @Test
+    @DisplayName("Should be deterministic across parallelism levels")
+    void testDeterministicAcrossParallelism() throws IOException {
+        generateTree(root, 3, 3, 4);
+
+        DetectionResult serial = new ParallelFileWalker(new ForkJoinPool(1))
+            .walk(root, Integer.MAX_VALUE, RECORD_ALL).result();
+        DetectionResult parallel = new ParallelFileWalker(new ForkJoinPool(16))
+            .walk(root, Integer.MAX_VALUE, RECORD_ALL).result();
+
+        assertEquals(serial.infrastructure, parallel.infrastructure);
+    }
+
+    @Test
+    @DisplayName("Should hand every file an empty sink and merge all findings sorted")
+    void testSinksArePerFile() throws IOException {
+        generateTree(root, 2, 3, 10);
+        AtomicInteger dirtySinks = new AtomicInteger();
+        ParallelFileWalker.FileHandler handler = (file, attrs, sink) -> {
+            if (!sink.isEmpty()) dirtySinks.incrementAndGet();
+            String name = file.getFileName().toString();
+            sink.languages.add(name);
+            sink.addFramework("file", file.toString());
+        };
+
+        DetectionResult result = new ParallelFileWalker(new ForkJoinPool(8))
+            .walk(root, Integer.MAX_VALUE, handler).result();
+
+        assertEquals(0, dirtySinks.get(), "A reused sink should have been emptied");
+        assertEquals(List.of("file0.txt", "file1.txt", "file2.txt", "file3.txt", "file4.txt", "file5.txt",
+            "file6.txt", "file7.txt", "file8.txt", "file9.txt"), List.copyOf(result.languages));
+        assertEquals(130, result.frameworks.get("file").size(), "Each file's evidence should be merged once");
+    }
+
+    @Test
+    @DisplayName("Should not hand more than maxFiles files to the handler")
+    void testMaxFiles() throws IOException {
+        generateTree(root, 2, 4, 10);
+
+        ParallelFileWalker.WalkResult walk = new ParallelFileWalker(new ForkJoinPool(4))
+            .walk(root, 25, RECORD_ALL);
+
+        assertEquals(25, walk.filesVisited());
+        assertEquals(25, walk.result().infrastructure.get("file").size());
+    }
+
+    private static void generateTree(Path dir, int depth, int fanOut, int filesPerDir) throws IOException {
+        for (int i = 0; i < filesPerDir; i++) {
+            Files.writeString(dir.resolve("file" + i + ".txt"), "x");
+        }
+        if (depth == 0) return;
+        for (int i = 0; i < fanOut; i++) {
+            Path child = Files.createDirectory(dir.resolve("dir" + i));
+            generateTree(child, depth - 1, fanOut, filesPerDir);
+        }
+    }
+}
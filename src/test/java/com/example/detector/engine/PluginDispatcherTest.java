@@ -0,0 +1,53 @@
+package com.example.detector.engine;
+
+import com.example.detector.detectors.lang.JavaDetector;
+import com.example.detector.detectors.lang.PythonDetector;
+import com.example.detector.detectors.lang.TerraformDetector;
+import com.example.detector.detectors.runtime.DockerfileRuntimeDetector;
+import com.example.detector.detectors.runtime.JdkVersionDetector;
+import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.PluginCategory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for PluginDispatcher routing by file name.
+ */
+@DisplayName("PluginDispatcher Tests")
+class PluginDispatcherTest {
+
+    private final DetectorPlugin java = new JavaDetector();
+    private final DetectorPlugin python = new PythonDetector();
+    private final DetectorPlugin terraform = new TerraformDetector();
+    private final DetectorPlugin docker = new DockerfileRuntimeDetector();
+    private final DetectorPlugin jdk = new JdkVersionDetector();
+    private final List<DetectorPlugin> plugins = List.of(java, python, terraform, docker, jdk);
+
+    @Test
+    @DisplayName("Should route files by exact name, extension and prefix in registration order")
+    void testRouting() {
+        PluginDispatcher dispatcher = new PluginDispatcher(plugins, p -> true);
+
+        assertEquals(List.of(java, jdk), dispatcher.pluginsFor("pom.xml"));
+        assertEquals(List.of(java, jdk), dispatcher.pluginsFor("build.gradle"));
+        assertEquals(List.of(java), dispatcher.pluginsFor("main.java"));
+        assertEquals(List.of(python), dispatcher.pluginsFor("requirements.txt"));
+        assertEquals(List.of(terraform), dispatcher.pluginsFor("prod.tfvars"));
+        assertEquals(List.of(docker, jdk), dispatcher.pluginsFor("dockerfile.prod"));
+        assertTrue(dispatcher.pluginsFor("readme.md").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only include plugins accepted by the filter")
+    void testCategoryFilter() {
+        PluginDispatcher dispatcher = new PluginDispatcher(plugins,
+            p -> p.category() == PluginCategory.INFRASTRUCTURE);
+
+        assertEquals(List.of(docker), dispatcher.pluginsFor("dockerfile"));
+        assertTrue(dispatcher.pluginsFor("pom.xml").isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.detector.metrics;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.config.ScanProperties;
+import com.example.detector.detectors.sbom.RegistryMatcher;
+import com.example.detector.detectors.sbom.SbomProcessor;
+import com.example.detector.detectors.sbom.SbomService;
+import com.example.detector.engine.SbomFirstDetectorEngine;
+import com.example.detector.model.DetectionResult;
+import com.example.detector.spi.DetectorPlugin;
+import com.example.detector.spi.FileInterest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for StatsReport over the metrics recorded by an engine scan.
+ */
+@DisplayName("StatsReport Tests")
+class StatsReportTest {
+
+    @TempDir
+    Path temp;
+
+    /** Inspects {@code .stack} files and fails on one named {@code broken.stack}. */
+    private static final class StackPlugin implements DetectorPlugin {
+        @Override
+        public void inspect(Path file, Path projectRoot, DetectionResult result) {
+            if (file.getFileName().toString().equals("broken.stack")) throw new IllegalStateException("broken");
+            result.languages.add("Java");
+        }
+
+        @Override
+        public FileInterest interest() {
+            return FileInterest.builder().extensions(".stack").build();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report files, bytes, plugin runs and failures, and SBOM processing")
+    void testReportsScan() throws Exception {
+        Path files = Files.createDirectories(temp.resolve("files/src"));
+        Files.writeString(files.resolve("one.stack"), "12345");
+        Files.writeString(files.resolve("broken.stack"), "123");
+        Files.writeString(files.resolve("notes.txt"), "ignored by every plugin");
+        Path withSbom = Files.createDirectories(temp.resolve("sbom"));
+        Files.writeString(withSbom.resolve("sbom.json"), """
+            {"bomFormat": "CycloneDX", "components": [
+              {"name": "spring-core", "purl": "pkg:maven/org.springframework/spring-core@6.1.0"},
+              {"name": "left-pad", "purl": "pkg:npm/left-pad@1.3.0"}
+            ]}""");
+
+        ScanMetrics metrics = new ScanMetrics();
+        RegistryLoader registryLoader = new RegistryLoader();
+        ScanProperties props = new ScanProperties();
+        props.setContentCache(false);
+        SbomFirstDetectorEngine engine = new SbomFirstDetectorEngine(new SbomService(),
+            new SbomProcessor(new RegistryMatcher(registryLoader), metrics), List.of(new StackPlugin()), props,
+            registryLoader, metrics);
+
+        engine.scanProject(temp.resolve("files"));
+        engine.scanProject(withSbom);
+        StatsReport report = StatsReport.of(metrics);
+
+        assertEquals(2, report.projects());
+        assertEquals(2, report.slowestProjects().size());
+        assertEquals(3, report.filesVisited(), "Files no plugin wants count as visited too");
+        assertEquals(2, report.filesDispatched());
+        assertEquals(8 + Files.size(withSbom.resolve("sbom.json")), report.bytesRead());
+        assertEquals(1, report.sboms());
+        assertEquals(2, report.sbomComponents());
+        assertEquals(2, report.registryMatches());
+        assertNull(report.contentCacheHits(), "No content cache was configured");
+
+        StatsReport.PluginStats plugin = report.plugins().get(0);
+        assertEquals("StackPlugin", plugin.plugin());
+        assertEquals(2, plugin.invocations());
+        assertEquals(1, plugin.errors());
+
+        assertTrue(report.toTable().contains("StackPlugin"));
+        JsonNode json = new ObjectMapper().valueToTree(report);
+        assertEquals(2, json.get("plugins").get(0).get("invocations").asInt());
+        assertFalse(json.has("contentCacheHits"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.detector.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DetectionResult keeping bounded evidence samples.
+ */
+@DisplayName("DetectionResult Tests")
+class DetectionResultTest {
+
+    private static final Path ROOT = Path.of("/repos/infra");
+
+    @Test
+    @DisplayName("Should keep the first distinct samples relative to the root and count the rest")
+    void testLimitsEvidence() throws Exception {
+        DetectionResult result = new DetectionResult();
+        result.limitEvidence(2, ROOT);
+        for (int i = 0; i < 5; i++) {
+            result.addInfrastructure("Terraform", ROOT.resolve("modules/m" + i + "/main.tf").toString());
+        }
+        result.addRuntime("JDK", ROOT.resolve("pom.xml") + " -> 17");
+        result.addRuntime("JDK", ROOT.resolve("pom.xml") + " -> 17");
+        result.addRuntime("Python", "Docker base: python:3.12");
+        result.addRuntime("Python", "/repos/infra-old/Dockerfile");
+
+        assertEquals(List.of(Path.of("modules/m0/main.tf").toString(), Path.of("modules/m1/main.tf").toString()),
+            result.infrastructure.get("Terraform"));
+        assertEquals(List.of("pom.xml -> 17"), result.runtimes.get("JDK"));
+        assertEquals(List.of("Docker base: python:3.12", "/repos/infra-old/Dockerfile"), result.runtimes.get("Python"),
+            "Only paths below the root should be made relative");
+        assertEquals(Map.of("infrastructure", Map.of("Terraform", 5), "runtimes", Map.of("JDK", 2)),
+            result.evidenceCounts);
+        assertFalse(new ObjectMapper().writeValueAsString(new DetectionResult()).contains("evidenceCounts"),
+            "Counts should only be written when evidence was cut");
+    }
+
+    @Test
+    @DisplayName("Should count the evidence of merged partials as if it had been added directly")
+    void testMergesIntoLimitedResult() {
+        DetectionResult direct = new DetectionResult();
+        direct.limitEvidence(3, ROOT);
+        DetectionResult merged = new DetectionResult();
+        merged.limitEvidence(3, ROOT);
+        DetectionResult limitedPartial = new DetectionResult();
+        limitedPartial.limitEvidence(2, ROOT);
+        for (int part = 0; part < 3; part++) {
+            DetectionResult partial = part == 1 ? limitedPartial : new DetectionResult();
+            for (int i = 0; i < 4; i++) {
+                String evidence = ROOT.resolve("p" + part + "/f" + i + ".tf").toString();
+                direct.addInfrastructure("Terraform", evidence);
+                partial.addInfrastructure("Terraform", evidence);
+            }
+            merged.merge(partial);
+        }
+
+        assertEquals(direct.infrastructure, merged.infrastructure);
+        assertEquals(Map.of("infrastructure", Map.of("Terraform", 12)), merged.evidenceCounts);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.detector.spi;
+
+import com.example.detector.config.RegistryLoader;
+import com.example.detector.detectors.framework.MavenPomDetector;
+import com.example.detector.detectors.framework.SpringFrameworkDetector;
+import com.example.detector.detectors.runtime.DockerfileRuntimeDetector;
+import com.example.detector.detectors.runtime.JdkVersionDetector;
+import com.example.detector.model.DetectionResult;
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for FileContext memoizing a file's content and parsed forms within its limits.
+ */
+@DisplayName("FileContext Tests")
+class FileContextTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    @DisplayName("Should parse once per context, remember failures, and start over after release")
+    void testMemoizesParses() throws Exception {
+        Path file = temp.resolve("versions.txt");
+        Files.writeString(file, "17");
+        AtomicInteger parses = new AtomicInteger();
+        FileContext.Parser<Integer> number = context -> {
+            parses.incrementAndGet();
+            return Integer.parseInt(context.text().trim());
+        };
+        FileContext context = new FileContext(file, temp);
+
+        assertEquals(17, context.parsed(number));
+        assertEquals(17, context.parsed(number));
+        assertEquals(1, parses.get());
+
+        Files.writeString(file, "seventeen");
+        context.release();
+        assertThrows(NumberFormatException.class, () -> context.parsed(number));
+        assertThrows(NumberFormatException.class, () -> context.parsed(number));
+        assertEquals(2, parses.get(), "A failed parse should not be retried");
+    }
+
+    @Test
+    @DisplayName("Should let all pom.xml plugins share one read and one Maven parse")
+    void testSharedByPlugins() throws Exception {
+        Path pom = temp.resolve("pom.xml");
+        Files.writeString(pom, """
+            <project>
+              <modelVersion>4.0.0</modelVersion>
+              <parent>
+                <groupId>org.springframework.boot</groupId>
+                <artifactId>spring-boot-starter-parent</artifactId>
+                <version>3.2.6</version>
+              </parent>
+              <artifactId>demo</artifactId>
+              <properties><java.version>17</java.version></properties>
+              <dependencies>
+                <dependency><groupId>org.postgresql</groupId><artifactId>postgresql</artifactId></dependency>
+              </dependencies>
+            </project>
+            """);
+        RegistryLoader registryLoader = new RegistryLoader();
+        FileContext context = new FileContext(pom, temp);
+        DetectionResult result = new DetectionResult();
+        for (DetectorPlugin plugin : List.of(new JdkVersionDetector(), new SpringFrameworkDetector(registryLoader),
+                new MavenPomDetector(registryLoader))) {
+            plugin.inspect(context, result);
+        }
+        Model model = context.mavenModel();
+
+        Files.delete(pom);
+        assertSame(model, context.mavenModel(), "The model should be parsed once and kept");
+        assertEquals(List.of("3.2.6"), result.frameworks.get("Spring Boot"));
+        assertEquals(List.of(pom + " -> 17"), result.runtimes.get("JDK"));
+
+        context.release();
+        assertThrows(NoSuchFileException.class, context::bytes, "Released content should be read again");
+    }
+
+    @Test
+    @DisplayName("Should refuse files over the size cap and binary files")
+    void testRefusesLargeAndBinaryFiles() throws Exception {
+        FileContext.Limits limits = new FileContext.Limits(1024, 512);
+        Path large = temp.resolve("Dockerfile.log");
+        Files.writeString(large, "FROM eclipse-temurin:17\n" + "x".repeat(2048));
+        Path nul = temp.resolve("Dockerfile.bin");
+        Files.write(nul, new byte[]{'F', 'R', 'O', 'M', 0, ' '});
+        Path png = temp.resolve("dockerfile.png");
+        Files.write(png, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n'});
+
+        for (Path file : List.of(large, nul, png)) {
+            FileContext context = new FileContext(file, temp, limits);
+            assertThrows(UnreadableFileException.class, context::bytes, file.toString());
+            assertThrows(UnreadableFileException.class, context::chars, file.toString());
+            DetectionResult result = new DetectionResult();
+            new DockerfileRuntimeDetector().inspect(context, result);
+            assertTrue(result.infrastructure.isEmpty(), file.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should map large files and scan them as characters without copying")
+    void testMapsLargeFiles() throws Exception {
+        FileContext.Limits limits = new FileContext.Limits(1 << 20, 16 * 1024);
+        Path large = temp.resolve("Dockerfile");
+        Files.writeString(large, "# padding\n".repeat(4000) + "FROM python:3.12-slim\n");
+        Path small = temp.resolve("small.Dockerfile");
+        Files.writeString(small, "FROM node:20\n");
+
+        FileContext mapped = new FileContext(large, temp, limits);
+        ByteBuffer buffer = mapped.buffer();
+        assertInstanceOf(MappedByteBuffer.class, buffer);
+        assertEquals(Files.size(large), buffer.remaining());
+        Matcher m = Pattern.compile("^FROM\\s+(\\S+)", Pattern.MULTILINE).matcher(mapped.chars());
+        assertTrue(m.find());
+        assertEquals("python:3.12-slim", m.group(1));
+        assertEquals(Files.readString(large), mapped.text(), "Bytes beyond the first block should be read too");
+
+        FileContext copied = new FileContext(small, temp, limits);
+        assertFalse(copied.buffer().isDirect());
+        assertEquals("FROM node:20\n", copied.chars().toString());
+        assertSame(copied.bytes(), copied.bytes());
+    }
+}